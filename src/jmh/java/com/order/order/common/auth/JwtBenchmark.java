@@ -0,0 +1,82 @@
+package com.order.order.common.auth;
+
+import com.order.order.member.domain.Member;
+import com.order.order.member.domain.Role;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+// at 토큰 생성(로그인) / 검증(요청마다 필터) 비용
+// 필터는 검증 캐시를 끈 경우(서명 검증 + json 파싱)와 켠 경우(digest + map 조회)를 나눠서 측정
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtTokenProvider jwtTokenProvider;
+    private JwtTokenFilter uncachedFilter;
+    private JwtTokenFilter cachedFilter;
+    private Method verifyMethod;
+    private Member member;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        byte[] keyBytes = new byte[64];
+        Arrays.fill(keyBytes, (byte) 7);
+        String secretKeyAt = Base64.getEncoder().encodeToString(keyBytes);
+        Arrays.fill(keyBytes, (byte) 9);
+        String secretKeyRt = Base64.getEncoder().encodeToString(keyBytes);
+
+        // at 생성에는 repository/redis 를 사용하지 않으므로 null 로 생성
+        jwtTokenProvider = new JwtTokenProvider(null, null, null);
+        setField(jwtTokenProvider, "expirationAt", 30);
+        setField(jwtTokenProvider, "secretKeyAt", secretKeyAt);
+        setField(jwtTokenProvider, "secretKeyRt", secretKeyRt);
+        jwtTokenProvider.init();
+
+        uncachedFilter = filter(secretKeyAt, 0);
+        cachedFilter = filter(secretKeyAt, 10000);
+        verifyMethod = JwtTokenFilter.class.getDeclaredMethod("verify", String.class);
+        verifyMethod.setAccessible(true);
+
+        member = Member.builder().id(1L).email("member@test.com").role(Role.USER).build();
+        token = jwtTokenProvider.createAtToken(member);
+    }
+
+    @Benchmark
+    public String create() {
+        return jwtTokenProvider.createAtToken(member);
+    }
+
+    @Benchmark
+    public Object parse() throws Exception {
+        return verifyMethod.invoke(uncachedFilter, token);
+    }
+
+    @Benchmark
+    public Object parseCached() throws Exception {
+        return verifyMethod.invoke(cachedFilter, token);
+    }
+
+    // 폐기 여부 확인은 doFilter 에서만 하므로 verify 측정에는 revocation service 가 필요 없음
+    private JwtTokenFilter filter(String secretKeyAt, int cacheMaxEntries) throws Exception {
+        JwtTokenFilter jwtTokenFilter = new JwtTokenFilter(null, new SimpleMeterRegistry());
+        setField(jwtTokenFilter, "secretKeyAt", secretKeyAt);
+        setField(jwtTokenFilter, "cacheMaxEntries", cacheMaxEntries);
+        setField(jwtTokenFilter, "cacheTtlSeconds", 300L);
+        jwtTokenFilter.init();
+        return jwtTokenFilter;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
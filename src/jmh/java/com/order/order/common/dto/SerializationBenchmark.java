@@ -0,0 +1,58 @@
+package com.order.order.common.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+// sse 알림 / rabbitmq 재고 메세지 직렬화
+// rabbitmq 는 실제 경로와 같게 발행은 Jackson2JsonMessageConverter, 수신은 body 를 ObjectMapper 로 읽음
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SerializationBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Jackson2JsonMessageConverter messageConverter = new Jackson2JsonMessageConverter();
+
+    private SseMessageDTO sseMessageDTO;
+    private String sseMessageJson;
+    private StockRabbitMqDTO stockRabbitMqDTO;
+    private byte[] stockMessageBody;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        sseMessageDTO = SseMessageDTO.builder()
+                .sender("member@test.com")
+                .receiver("admin@test.com")
+                .orderingId(1L)
+                .eventId("1700000000000-0")
+                .build();
+        sseMessageJson = objectMapper.writeValueAsString(sseMessageDTO);
+        stockRabbitMqDTO = StockRabbitMqDTO.builder().productId(1L).productCount(3).build();
+        stockMessageBody = messageConverter.toMessage(stockRabbitMqDTO, new MessageProperties()).getBody();
+    }
+
+    @Benchmark
+    public String sseWrite() throws Exception {
+        return objectMapper.writeValueAsString(sseMessageDTO);
+    }
+
+    @Benchmark
+    public SseMessageDTO sseRead() throws Exception {
+        return objectMapper.readValue(sseMessageJson, SseMessageDTO.class);
+    }
+
+    @Benchmark
+    public Message stockPublish() {
+        return messageConverter.toMessage(stockRabbitMqDTO, new MessageProperties());
+    }
+
+    @Benchmark
+    public StockRabbitMqDTO stockConsume() throws Exception {
+        return objectMapper.readValue(new String(stockMessageBody), StockRabbitMqDTO.class);
+    }
+}
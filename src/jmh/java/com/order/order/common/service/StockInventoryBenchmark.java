@@ -0,0 +1,59 @@
+package com.order.order.common.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// 재고 처리 경로 (메모리 재고 엔진 기준)
+// 주문 시 재고 감소, 목록 조회 시 페이지 단위 재고 조회, 인기 상품에 주문이 몰릴 때의 차감 경합
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class StockInventoryBenchmark {
+
+    private static final int PRODUCT_COUNT = 1000;
+    private static final int HOT_PRODUCT_COUNT = 4;
+    private static final int PAGE_SIZE = 20;
+
+    private InMemoryStockStore stockStore;
+    private StockInventoryService stockInventoryService;
+    private List<Long> pageIdList;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        stockStore = new InMemoryStockStore(64);
+        stockInventoryService = new StockInventoryService(stockStore, new SimpleMeterRegistry());
+        for (long productId = 1; productId <= PRODUCT_COUNT; productId++) {
+            stockInventoryService.makeStockQuantity(productId, Integer.MAX_VALUE / 2);
+        }
+        pageIdList = new ArrayList<>();
+        for (long productId = 1; productId <= PAGE_SIZE; productId++) {
+            pageIdList.add(productId);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int decrease() {
+        long productId = ThreadLocalRandom.current().nextLong(1, PRODUCT_COUNT + 1);
+        return stockInventoryService.decreaseStockQuantity(productId, 1);
+    }
+
+    @Benchmark
+    public Map<Long, Integer> getPage() {
+        return stockInventoryService.getStockQuantities(pageIdList);
+    }
+
+    // 서비스(timer 기록) 없이 엔진만, 소수 상품에 차감 집중
+    @Benchmark
+    @Threads(8)
+    public int reserveHot() {
+        long productId = ThreadLocalRandom.current().nextLong(1, HOT_PRODUCT_COUNT + 1);
+        return stockStore.reserve(productId, 1);
+    }
+}
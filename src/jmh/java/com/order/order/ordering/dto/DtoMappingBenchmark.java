@@ -0,0 +1,59 @@
+package com.order.order.ordering.dto;
+
+import com.order.order.member.domain.Member;
+import com.order.order.ordering.domain.OrderDetail;
+import com.order.order.ordering.domain.Ordering;
+import com.order.order.product.domain.Product;
+import com.order.order.product.dto.ProductResDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// 주문 목록 / 상품 조회 응답 변환 (entity -> dto)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    // 주문 한 건의 상품 종류 수
+    @Param({"1", "10"})
+    private int detailCount;
+
+    private Ordering ordering;
+    private Product product;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Member member = Member.builder().id(1L).name("member").email("member@test.com").build();
+        product = Product.builder()
+                .id(1L)
+                .name("product")
+                .category("fruit")
+                .price(1000)
+                .stockQuantity(100)
+                .imagePath("https://bucket.s3.amazonaws.com/product-1.jpg")
+                .imageVariants(Map.of("thumbnail", "https://bucket.s3.amazonaws.com/product-1-thumbnail.jpg"))
+                .member(member)
+                .build();
+        ordering = Ordering.builder().id(1L).member(member).build();
+        for (int i = 0; i < detailCount; i++) {
+            ordering.getOrderDetailList().add(OrderDetail.builder()
+                    .id((long) i)
+                    .product(product)
+                    .quantity(i + 1)
+                    .ordering(ordering)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public OrderListResDTO orderList() {
+        return OrderListResDTO.fromEntity(ordering);
+    }
+
+    @Benchmark
+    public ProductResDTO product() {
+        return ProductResDTO.fromEntity(product);
+    }
+}
@@ -0,0 +1,61 @@
+package com.order.order.product.repository;
+
+import com.order.order.member.domain.Member;
+import com.order.order.product.domain.Product;
+import com.order.order.product.domain.ProductSearchDTO;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 상품 검색 조건(Specification) 조립 -> criteria predicate 생성
+// 쿼리 실행은 제외하고 조건 조립 비용만 측정 (criteria builder 는 h2 메모리 db 로 띄운 hibernate 사용)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpecificationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private ProductSearchDTO emptySearchDTO;
+    private ProductSearchDTO fullSearchDTO;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(Member.class)
+                .addAnnotatedClass(Product.class)
+                .setProperty("hibernate.connection.url", "jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+        emptySearchDTO = ProductSearchDTO.builder().build();
+        fullSearchDTO = ProductSearchDTO.builder().productName("apple").category("fruit").lastId(1000L).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate empty() {
+        return toPredicate(emptySearchDTO);
+    }
+
+    @Benchmark
+    public Predicate full() {
+        return toPredicate(fullSearchDTO);
+    }
+
+    private Predicate toPredicate(ProductSearchDTO productSearchDTO) {
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+        return ProductSpecification.search(productSearchDTO).toPredicate(root, query, criteriaBuilder);
+    }
+}
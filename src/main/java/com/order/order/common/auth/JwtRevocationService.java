@@ -0,0 +1,192 @@
+package com.order.order.common.auth;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// access token 폐기 목록 (회원 탈퇴 등)
+// 정확한 목록은 redis hash(jwt:revoked, field : email, value : 폐기 시각)에 저장
+// 각 서버는 bloom filter 만 메모리에 들고 있다가, filter 에 걸린 경우(폐기됐을 수 있음)에만 redis 를 조회
+// 폐기가 발생하면 pub/sub(jwt-revocation)으로 모든 서버의 filter 에 반영
+// 폐기 시 사용자의 rt 도 모두 삭제 (rt 로 새 access token 을 받아 폐기를 우회하지 못하도록)
+@Component
+@Slf4j
+public class JwtRevocationService implements MessageListener {
+
+    public static final String REVOCATION_CHANNEL = "jwt-revocation";
+    private static final String REVOKED_KEY = "jwt:revoked";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // bloom filter 크기(bit 수)와 hash 함수 개수
+    @Value("${jwt.revocation.bloom-bits:1048576}")
+    private int bloomBits;
+
+    @Value("${jwt.revocation.bloom-hashes:5}")
+    private int bloomHashes;
+
+    @Value("${jwt.expirationAt}")
+    private int expirationAt;
+
+    private volatile BloomFilter bloomFilter;
+    // filter 재생성 중에 추가된 항목 (재생성한 filter 에도 반영)
+    private volatile Set<String> recentAddSet = ConcurrentHashMap.newKeySet();
+
+    public JwtRevocationService(@Qualifier("rtInventory") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    // 해당 사용자가 지금까지 발급받은 access token, refresh token 전부 폐기 (commit 이후 반영)
+    public void revoke(String email) {
+        Runnable runnable = () -> {
+            redisTemplate.opsForHash().put(REVOKED_KEY, email, String.valueOf(System.currentTimeMillis()));
+            addToFilter(email);
+            redisTemplate.convertAndSend(REVOCATION_CHANNEL, email);
+            deleteRefreshTokens(email);
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+    // 사용자의 rt family 와 각 family 의 현재 rt 삭제
+    private void deleteRefreshTokens(String email) {
+        Set<String> familySet = redisTemplate.opsForSet().members(JwtTokenProvider.RT_MEMBER_KEY + email);
+        List<String> keyList = new ArrayList<>();
+        keyList.add(JwtTokenProvider.RT_MEMBER_KEY + email);
+        if (familySet != null) {
+            for (String family : familySet) {
+                String digest = redisTemplate.opsForValue().getAndDelete(JwtTokenProvider.RT_FAMILY_KEY + family);
+                if (digest != null) {
+                    keyList.add(JwtTokenProvider.RT_KEY + digest);
+                }
+            }
+        }
+        redisTemplate.delete(keyList);
+    }
+
+    // issuedAt(토큰 발급 시각, ms) 이 폐기 시각 이전이면 폐기된 토큰
+    public boolean isRevoked(String email, long issuedAt) {
+        // 대부분의 요청은 filter 에서 바로 통과 (redis 조회 없음)
+        if (!bloomFilter.mightContain(email)) {
+            return false;
+        }
+        Object revokedAt = redisTemplate.opsForHash().get(REVOKED_KEY, email);
+        return revokedAt != null && issuedAt <= Long.parseLong(revokedAt.toString());
+    }
+
+    // 다른 서버에서 발생한 폐기 반영
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addToFilter(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    private void addToFilter(String email) {
+        recentAddSet.add(email);
+        bloomFilter.add(email);
+    }
+
+    // 주기적으로 redis 목록으로 filter 재생성
+    // access token 유효 기간이 지난 폐기 항목은 더 이상 필요 없으므로 삭제 (filter 가 계속 커지지 않도록)
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:600000}", initialDelayString = "${jwt.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        Set<String> recentSet = ConcurrentHashMap.newKeySet();
+        recentAddSet = recentSet;
+        long expiredBefore = System.currentTimeMillis() - expirationAt * 90 * 1000L;
+        BloomFilter rebuilt = new BloomFilter(bloomBits, bloomHashes);
+        List<Object> expiredList = new ArrayList<>();
+        for (Map.Entry<Object, Object> entry : redisTemplate.opsForHash().entries(REVOKED_KEY).entrySet()) {
+            if (Long.parseLong(entry.getValue().toString()) < expiredBefore) {
+                expiredList.add(entry.getKey());
+            } else {
+                rebuilt.add(entry.getKey().toString());
+            }
+        }
+        if (!expiredList.isEmpty()) {
+            redisTemplate.opsForHash().delete(REVOKED_KEY, expiredList.toArray());
+        }
+        // 재생성 중에 들어온 폐기는 이전 filter 에만 반영됐을 수 있으므로 교체 전후로 다시 추가
+        recentSet.forEach(rebuilt::add);
+        bloomFilter = rebuilt;
+        recentSet.forEach(rebuilt::add);
+        log.debug("jwt 폐기 filter 재생성, 만료 항목 삭제 = {}", expiredList.size());
+    }
+
+    // lock 없이 동작하는 bloom filter (AtomicLongArray 의 bit 를 CAS 로 설정)
+    private static class BloomFilter {
+        private final AtomicLongArray bits;
+        private final int bitSize;
+        private final int hashCount;
+
+        private BloomFilter(int bitSize, int hashCount) {
+            this.bits = new AtomicLongArray((bitSize + 63) / 64);
+            this.bitSize = bitSize;
+            this.hashCount = hashCount;
+        }
+
+        private void add(String value) {
+            long hash1 = mix(value.hashCode());
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                int index = (int) Math.floorMod(hash1 + i * hash2, (long) bitSize);
+                long mask = 1L << (index & 63);
+                int word = index >>> 6;
+                long current;
+                do {
+                    current = bits.get(word);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash1 = mix(value.hashCode());
+            long hash2 = mix(hash1);
+            for (int i = 0; i < hashCount; i++) {
+                int index = (int) Math.floorMod(hash1 + i * hash2, (long) bitSize);
+                if ((bits.get(index >>> 6) & (1L << (index & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // splitmix64
+        private static long mix(long value) {
+            long z = value + 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
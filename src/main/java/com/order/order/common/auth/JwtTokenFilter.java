@@ -1,7 +1,13 @@
 package com.order.order.common.auth;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.*;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -13,9 +19,15 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
@@ -24,6 +36,40 @@ public class JwtTokenFilter extends GenericFilter {
     @Value("${jwt.secretKeyAt}")
     private String secretKeyAt;
 
+    // 검증이 끝난 토큰 캐시 최대 개수 (가득 차면 만료된 항목 정리, 그래도 가득 차 있으면 캐싱하지 않음)
+    @Value("${jwt.cache.max-entries:10000}")
+    private int cacheMaxEntries;
+
+    // 캐시 유지 시간 (토큰 만료 시각을 넘지 않음)
+    @Value("${jwt.cache.ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // parser 는 thread-safe 하므로 한 번만 생성해서 재사용 (요청마다 key 파싱/parser 생성 X)
+    private JwtParser jwtParser;
+
+    // key : 토큰의 SHA-256 digest, value : 검증된 사용자 정보
+    private final Map<String, VerifiedToken> verifiedTokenMap = new ConcurrentHashMap<>();
+
+    private final JwtRevocationService jwtRevocationService;
+    private final Timer parseTimer;
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+
+    public JwtTokenFilter(JwtRevocationService jwtRevocationService, MeterRegistry meterRegistry) {
+        this.jwtRevocationService = jwtRevocationService;
+        // 서명 검증 + 파싱 소요 시간, 검증 캐시 적중 여부
+        this.parseTimer = Timer.builder("jwt.parse").register(meterRegistry);
+        this.cacheHitCounter = Counter.builder("jwt.cache").tag("result", "hit").register(meterRegistry);
+        this.cacheMissCounter = Counter.builder("jwt.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(new SecretKeySpec(Base64.getDecoder().decode(secretKeyAt), SignatureAlgorithm.HS512.getJcaName()))
+                .build();
+    }
+
     @Override
     public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain) throws IOException, ServletException {
 
@@ -38,16 +84,16 @@ public class JwtTokenFilter extends GenericFilter {
             // Auth Type이 Bearer Token 인 경우 토큰 앞에 bearer이 붙어서 나가기 때문에 잘라주어야 함.
             String token = bearerToken.substring(7);
 
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(secretKeyAt)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-
-            List<GrantedAuthority> authorities = new ArrayList<>();
-            authorities.add(new SimpleGrantedAuthority("ROLE_" + claims.get("role")));
+            // 이미 검증한 토큰이면 서명 검증/json 파싱 없이 캐시된 권한 사용
+            VerifiedToken verifiedToken = verify(token);
+            // 폐기된 토큰(탈퇴 등)은 인증 정보를 설정하지 않음
+            if (jwtRevocationService.isRevoked(verifiedToken.email, verifiedToken.issuedAt)) {
+                log.warn("폐기된 토큰 요청 email = {}", verifiedToken.email);
+                filterChain.doFilter(servletRequest, servletResponse);
+                return;
+            }
 
-            Authentication authentication = new UsernamePasswordAuthenticationToken(claims.getSubject(), "", authorities);
+            Authentication authentication = new UsernamePasswordAuthenticationToken(verifiedToken.email, "", verifiedToken.authorities);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         } catch (Exception e) {
             log.error(e.getMessage());
@@ -55,4 +101,56 @@ public class JwtTokenFilter extends GenericFilter {
 
         filterChain.doFilter(servletRequest, servletResponse);
     }
+
+    private VerifiedToken verify(String token) {
+        String digest = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken verifiedToken = verifiedTokenMap.get(digest);
+        if (verifiedToken != null) {
+            if (verifiedToken.cachedUntil > now) {
+                cacheHitCounter.increment();
+                return verifiedToken;
+            }
+            verifiedTokenMap.remove(digest, verifiedToken);
+        }
+
+        cacheMissCounter.increment();
+        Claims claims = parseTimer.record(() -> jwtParser.parseClaimsJws(token).getBody());
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_" + claims.get("role")));
+        long cachedUntil = Math.min(claims.getExpiration().getTime(), now + cacheTtlSeconds * 1000L);
+        verifiedToken = new VerifiedToken(claims.getSubject(), authorities
+                , claims.getIssuedAt() == null ? 0L : claims.getIssuedAt().getTime(), cachedUntil);
+
+        if (verifiedTokenMap.size() >= cacheMaxEntries) {
+            verifiedTokenMap.values().removeIf(cached -> cached.cachedUntil <= now);
+        }
+        if (verifiedTokenMap.size() < cacheMaxEntries) {
+            verifiedTokenMap.put(digest, verifiedToken);
+        }
+        return verifiedToken;
+    }
+
+    // 토큰 원문 대신 digest 를 key 로 사용 (메모리 절약 + 캐시에 토큰 원문을 남기지 않음)
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(messageDigest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class VerifiedToken {
+        private final String email;
+        private final List<GrantedAuthority> authorities;
+        private final long issuedAt;
+        private final long cachedUntil;
+
+        private VerifiedToken(String email, List<GrantedAuthority> authorities, long issuedAt, long cachedUntil) {
+            this.email = email;
+            this.authorities = authorities;
+            this.issuedAt = issuedAt;
+            this.cachedUntil = cachedUntil;
+        }
+    }
 }
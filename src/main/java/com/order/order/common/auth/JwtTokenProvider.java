@@ -1,8 +1,10 @@
 package com.order.order.common.auth;
 
 import com.order.order.member.domain.Member;
+import com.order.order.member.dto.LoginResDTO;
 import com.order.order.member.repository.MemberRepository;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import jakarta.annotation.PostConstruct;
@@ -13,7 +15,13 @@ import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
 import java.util.Date;
 import java.util.concurrent.TimeUnit;
 
@@ -33,34 +41,48 @@ public class JwtTokenProvider {
     @Value("${jwt.secretKeyRt}")
     private String secretKeyRt;
 
+    // 폐기(JwtRevocationService) 시 사용자의 rt 를 모두 지우기 위해 같은 패키지에서 참조
+    static final String RT_KEY = "rt:";
+    static final String RT_FAMILY_KEY = "rtf:";
+    // 사용자별 rt family 목록 (key : rtm:{email}, set)
+    static final String RT_MEMBER_KEY = "rtm:";
+    private static final String FAMILY_CLAIM = "fam";
+
     // 암호화 알고리즘 사용한 key (암호화를 한 건 아님)
     private Key secret_at_key;
     private Key secret_rt_key;
+    private JwtParser rtParser;
+    private final SecureRandom secureRandom = new SecureRandom();
 
     private final MemberRepository memberRepository;
 
     // @Qualifier("rtInventory") 사용해야 하기 때문에 @RequiredArgsConstructor 만으로는 주입 받기 어려움
     private final RedisTemplate<String, String> redisTemplate;
+    private final JwtRevocationService jwtRevocationService;
 
     // @Qualifier는 기본적으로 메서드를 통한 주입 가능. 그래서 이 경우 생성자 주입 방식을 해야 Qualifier 사용 가능
-    public JwtTokenProvider(MemberRepository memberRepository, @Qualifier("rtInventory") RedisTemplate<String, String> redisTemplate) {
+    public JwtTokenProvider(MemberRepository memberRepository, @Qualifier("rtInventory") RedisTemplate<String, String> redisTemplate
+            , JwtRevocationService jwtRevocationService) {
         this.memberRepository = memberRepository;
         this.redisTemplate = redisTemplate;
+        this.jwtRevocationService = jwtRevocationService;
     }
 
     @PostConstruct
     public void init() {
-        secret_at_key = new SecretKeySpec(java.util.Base64.getDecoder().decode(secretKeyAt)
+        secret_at_key = new SecretKeySpec(Base64.getDecoder().decode(secretKeyAt)
                 , SignatureAlgorithm.HS512.getJcaName());
 
-        secret_rt_key = new SecretKeySpec(java.util.Base64.getDecoder().decode(secretKeyRt)
+        secret_rt_key = new SecretKeySpec(Base64.getDecoder().decode(secretKeyRt)
                 , SignatureAlgorithm.HS512.getJcaName());
+
+        // key/parser 는 기동 시 한 번만 생성 (토큰 생성/검증마다 다시 만들지 않음)
+        rtParser = Jwts.parserBuilder().setSigningKey(secret_rt_key).build();
     }
 
     public String createAtToken(Member member) {
         String email = member.getEmail();
         String role = member.getRole().toString();
-        init();
 
         Claims claims = Jwts.claims().setSubject(email);
         claims.put("role", role);
@@ -76,48 +98,92 @@ public class JwtTokenProvider {
         return token;
     }
 
+    // 로그인 시 새 토큰 family 로 rt 발급
     public String createRtToken(Member member) {
+        return createRtToken(member, newFamily());
+    }
+
+    private String createRtToken(Member member, String family) {
         // 유효 기간이 긴 rt 토큰 생성
         String email = member.getEmail();
         String role = member.getRole().toString();
-        init();
 
         Claims claims = Jwts.claims().setSubject(email);
         claims.put("role", role);
+        // 같은 로그인에서 갱신(rotation)되어 이어지는 rt 들의 묶음 id
+        claims.put(FAMILY_CLAIM, family);
 
         Date now = new Date();
         String refreshToken =Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(now)
-                .setExpiration(new Date(now.getTime() + expirationRt * 90 * 1000L))
+                .setExpiration(new Date(now.getTime() + rtTtlSeconds() * 1000L))
                 .signWith(secret_rt_key)
                 .compact();
-        
-        
-        // rt 토큰을 redis에 저장 : key-value 형식으로 set
-        redisTemplate.opsForValue().set(member.getEmail(), refreshToken);
-        // 200일 TTL(유효 시간)
-//        redisTemplate.opsForValue().set(member.getEmail(), refreshToken, 200, TimeUnit.DAYS);
+
+        // rt 원문 대신 digest 를 key 로 저장 (value : email|family), 토큰 만료 시각에 맞춰 TTL 설정
+        // family key 는 현재 유효한 rt 의 digest 를 가리킴
+        String digest = digest(refreshToken);
+        redisTemplate.opsForValue().set(RT_KEY + digest, email + "|" + family, rtTtlSeconds(), TimeUnit.SECONDS);
+        redisTemplate.opsForValue().set(RT_FAMILY_KEY + family, digest, rtTtlSeconds(), TimeUnit.SECONDS);
+        // 탈퇴 등으로 폐기할 때 사용자의 모든 family 를 찾을 수 있도록 기록 (마지막 발급 기준으로 TTL 연장)
+        redisTemplate.opsForSet().add(RT_MEMBER_KEY + email, family);
+        redisTemplate.expire(RT_MEMBER_KEY + email, rtTtlSeconds(), TimeUnit.SECONDS);
         return refreshToken;
     }
 
-    public Member validateRt(String refreshToken) {
+    // rt 검증 후 at/rt 재발급 (rt 는 한 번만 사용 가능)
+    // 이미 사용된 rt 가 다시 들어오면 탈취로 보고 같은 family 의 rt 를 모두 폐기
+    public LoginResDTO rotateRt(String refreshToken) {
         // rt 그 자체를 검증
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(secretKeyRt)
-                .build()
-                .parseClaimsJws(refreshToken)
-                .getBody();
+        Claims claims = rtParser.parseClaimsJws(refreshToken).getBody();
+        String family = claims.get(FAMILY_CLAIM, String.class);
+        if (family == null) {
+            throw new IllegalArgumentException("잘못된 토큰 입니다.");
+        }
 
-        String email = claims.getSubject();
-        Member member = memberRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("member is not found"));
+        // redis의 값과 비교하는 검증 (GETDEL 로 조회와 동시에 삭제 -> 같은 rt 로 동시에 갱신해도 한 번만 성공)
+        String value = redisTemplate.opsForValue().getAndDelete(RT_KEY + digest(refreshToken));
+        if (value == null) {
+            String currentDigest = redisTemplate.opsForValue().getAndDelete(RT_FAMILY_KEY + family);
+            if (currentDigest != null) {
+                // family 는 살아있는데 rt 가 없음 = 이미 갱신에 사용된 rt 의 재사용
+                redisTemplate.delete(RT_KEY + currentDigest);
+            }
+            throw new IllegalArgumentException("잘못된 토큰 입니다.");
+        }
 
-        // redis의 값과 비교하는 검증
-        String redisRt = redisTemplate.opsForValue().get(member.getEmail());
-        if (!redisRt.equals(refreshToken)) {
+        String email = value.substring(0, value.indexOf('|'));
+        Member member = memberRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("member is not found"));
+        // 탈퇴한 회원이거나 폐기 시각 이전에 발급된 rt 면 재발급 불가 (사용된 rt 는 위에서 이미 삭제됨)
+        if ("Y".equals(member.getDelYn()) || jwtRevocationService.isRevoked(email, claims.getIssuedAt().getTime())) {
             throw new IllegalArgumentException("잘못된 토큰 입니다.");
         }
 
-        return member;
+        return LoginResDTO.builder()
+                .accessToken(createAtToken(member))
+                .refreshToken(createRtToken(member, family))
+                .build();
+    }
+
+    // rt 유효 기간 (초)
+    private long rtTtlSeconds() {
+        return expirationRt * 90L;
+    }
+
+    private String newFamily() {
+        byte[] bytes = new byte[16];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // 토큰 SHA-256 앞 16 byte 를 base64url 로 표현 (22자)
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 }
@@ -1,13 +1,15 @@
 package com.order.order.common.auth;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -16,6 +18,8 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @RequiredArgsConstructor
@@ -26,6 +30,9 @@ public class SecurityConfig {
     private final JwtAuthenticationHandler jwtAuthenticationHandler;
     private final JwtAuthorizationHandler jwtAuthorizationHandler;
 
+    // actuator 전용 포트 (외부에 열지 않는 내부 포트, 미설정 시 -1)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity httpSecurity) throws Exception {
@@ -42,10 +49,13 @@ public class SecurityConfig {
                                 .accessDeniedHandler(jwtAuthorizationHandler)          // 403의 경우
                 )
                 .authorizeHttpRequests(a
-                        -> a.requestMatchers("/member/create", "/member/doLogin", "/member/refresh_at"
-                                , "/product/list", "/product/detail/{id}"
+                        -> a.requestMatchers("/member/create", "/member/doLogin", "/member/refresh-at"
+                                , "/product/list", "/product/detail/{id}", "/sse/product/{productId}"
                                 , "/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html")
                         .permitAll()
+                        // health, prometheus 는 내부 포트로 들어온 요청만 인증 없이 허용 (서비스 포트에서는 노출 X)
+                        .requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+                        .permitAll()
                         .anyRequest()
                         .authenticated())
                 .build();
@@ -66,8 +76,12 @@ public class SecurityConfig {
         return source;
     }
 
+    // bcrypt work factor 를 설정으로 조정 (저장된 해시는 {bcrypt} prefix 로 구분)
+    // 값을 올리면 기존 회원은 다음 로그인 때 새 work factor 로 재해시됨
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return PasswordEncoderFactories.createDelegatingPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password.bcrypt.strength:10}") int strength) {
+        Map<String, PasswordEncoder> encoderMap = new HashMap<>();
+        encoderMap.put("bcrypt", new BCryptPasswordEncoder(strength));
+        return new DelegatingPasswordEncoder("bcrypt", encoderMap);
     }
 }
@@ -2,13 +2,16 @@ package com.order.order.common.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.beans.factory.annotation.Value;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 
+// perf 프로필에서는 로컬 디렉토리 저장소 사용 (PerfConfig)
 @Configuration
+@Profile("!perf")
 public class AwsS3Config {
 
     @Value("${cloud.aws.credentials.access-key}")
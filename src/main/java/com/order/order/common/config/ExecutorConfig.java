@@ -0,0 +1,166 @@
+package com.order.order.common.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// 요청 스레드와 분리해서 실행할 작업들의 전용 스레드풀
+// 스레드 수와 큐 크기를 제한해서 작업이 몰려도 서버 전체 자원을 잡아먹지 않도록 설정
+// spring.threads.virtual.enabled=true (java 21) 이면 I/O 대기 위주의 작업은 가상 스레드로 실행하고 동시 실행 수만 제한
+// CPU 작업(이미지 변환)은 가상 스레드로 얻는 이점이 없으므로 항상 플랫폼 스레드풀 사용
+@Configuration
+public class ExecutorConfig {
+
+    private final boolean virtualThreads;
+
+    public ExecutorConfig(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
+    // 상품 목록 count 캐시 비동기 갱신용
+    // 갱신 요청이 밀리면 버려도 되므로 거절 (호출하는 쪽에서 갱신 중 표시를 되돌려 다음 조회 시 다시 요청)
+    @Bean
+    @Qualifier("productCountExecutor")
+    public AsyncTaskExecutor productCountExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("product-count-", 2, true);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("product-count-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // S3 multipart upload 의 part 병렬 전송용
+    // 큐가 가득 차면 요청 스레드가 직접 전송 (업로드 자체는 실패시키지 않음)
+    @Bean
+    @Qualifier("s3UploadExecutor")
+    public AsyncTaskExecutor s3UploadExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("s3-upload-", 64, false);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(32);
+        executor.setThreadNamePrefix("s3-upload-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // 상품 이미지 업로드/삭제 (db 트랜잭션 commit 이후 실행)
+    // afterCommit 콜백 시점에는 commit 된 트랜잭션의 db 커넥션이 아직 요청 스레드에 묶여 있으므로
+    // 큐가 가득 차도 요청 스레드에서 직접 처리하지 않고 거절 (호출하는 쪽에서 이미지를 FAILED 로 표시)
+    @Bean
+    @Qualifier("productImageExecutor")
+    public AsyncTaskExecutor productImageExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("product-image-", 32, true);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("product-image-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // 상품 이미지 파생본 backfill (전체 상품을 순회하는 긴 작업이므로 업로드 스레드풀과 분리, 한 번에 하나만 실행)
+    @Bean
+    @Qualifier("productImageBackfillExecutor")
+    public ThreadPoolTaskExecutor productImageBackfillExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("product-image-backfill-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // 상품 이미지 파생본 생성 (decode/resize/encode 는 CPU 작업이므로 코어 수만큼만 실행)
+    @Bean
+    @Qualifier("imageProcessExecutor")
+    public ThreadPoolTaskExecutor imageProcessExecutor() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("image-process-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    // 비밀번호 해시 생성/검증 (bcrypt 는 CPU 작업이므로 가상 스레드 모드에서도 코어 수만큼의 플랫폼 스레드로 제한)
+    // 큐가 가득 차면 거절 -> 429 응답 (로그인이 몰려도 요청 스레드/CPU 를 다 쓰지 않도록)
+    @Bean
+    @Qualifier("passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${password.hash.queue-capacity:200}") int queueCapacity) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("password-hash-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // sse 알림 발송 (주문 트랜잭션 commit 이후 실행)
+    // 요청 스레드가 느린 브라우저 전송을 기다리지 않도록 분리, 큐가 가득 차면 거절 (알림은 보관함에 남아 재연결 시 전송)
+    @Bean
+    @Qualifier("sseDispatchExecutor")
+    public AsyncTaskExecutor sseDispatchExecutor() {
+        if (virtualThreads) {
+            return virtualExecutor("sse-dispatch-", 1000, true);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("sse-dispatch-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // sse 보관함 재전송 (재연결 시 Last-Event-ID 이후 알림)
+    // 동시에 재전송하는 연결 수를 제한해서 배포 직후 재연결이 몰려도 redis 부하를 제한, 한도를 넘으면 거절 (재전송 생략 이벤트 전송)
+    @Bean
+    @Qualifier("sseReplayExecutor")
+    public AsyncTaskExecutor sseReplayExecutor(@Value("${sse.inbox.replay-concurrency:16}") int replayConcurrency
+            , @Value("${sse.inbox.replay-queue-capacity:200}") int queueCapacity) {
+        if (virtualThreads) {
+            return virtualExecutor("sse-replay-", replayConcurrency, true);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(replayConcurrency);
+        executor.setMaxPoolSize(replayConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sse-replay-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // 작업마다 가상 스레드를 새로 만들고(풀링 X) 동시 실행 수만 제한
+    // reject 가 false 면 한도에 도달했을 때 호출한 스레드가 대기 (CallerRunsPolicy 와 같은 역할)
+    private AsyncTaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit, boolean reject) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(concurrencyLimit);
+        executor.setRejectTasksWhenLimitReached(reject);
+        return executor;
+    }
+}
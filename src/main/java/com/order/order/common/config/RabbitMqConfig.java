@@ -8,8 +8,11 @@ import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+// perf 프로필에서는 메모리 브로커 사용 (PerfConfig)
 @Configuration
+@Profile("!perf")
 public class RabbitMqConfig {
 
     @Value("${spring.rabbitmq.host}")
@@ -1,14 +1,20 @@
 package com.order.order.common.config;
 
+import com.order.order.common.auth.JwtRevocationService;
+import com.order.order.common.service.ProductStockStreamService;
 import com.order.order.common.service.SseAlarmService;
+import com.order.order.common.service.SsePresenceService;
+import io.lettuce.core.resource.ClientResources;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
 import org.springframework.data.redis.listener.PatternTopic;
 import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
@@ -23,6 +29,17 @@ public class RedisConfig {
     @Value("${spring.redis.port}")
     private int port;
 
+    // boot 가 만든 lettuce ClientResources 를 공유해서 명령 지연 시간 metric(lettuce.command.*)이 기록되도록 함
+    private final ClientResources clientResources;
+
+    public RedisConfig(ClientResources clientResources) {
+        this.clientResources = clientResources;
+    }
+
+    private LettuceClientConfiguration clientConfiguration() {
+        return LettuceClientConfiguration.builder().clientResources(clientResources).build();
+    }
+
 //    Qualifier : "같은 Bean 객체가 여러 개" 있을 경우 Bean 객체를 구분하기 위한 어노테이션
     @Bean
     @Qualifier("rtInventory")
@@ -31,7 +48,7 @@ public class RedisConfig {
         configuration.setHostName(host);
         configuration.setPort(port);
         configuration.setDatabase(0);
-        return new LettuceConnectionFactory(configuration);
+        return new LettuceConnectionFactory(configuration, clientConfiguration());
     }
 
     @Bean
@@ -41,9 +58,19 @@ public class RedisConfig {
         configuration.setHostName(host);
         configuration.setPort(port);
         configuration.setDatabase(1);
-        return new LettuceConnectionFactory(configuration);
+        return new LettuceConnectionFactory(configuration, clientConfiguration());
     }
 
+    // 카테고리별 상품 정렬 인덱스(sorted set) + 상품 본문 캐시용
+    @Bean
+    @Qualifier("productIndex")
+    public RedisConnectionFactory productIndexConnectionFactory() {        // 연결 객체
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration();
+        configuration.setHostName(host);
+        configuration.setPort(port);
+        configuration.setDatabase(2);
+        return new LettuceConnectionFactory(configuration, clientConfiguration());
+    }
 
     // 싱글톤 객체를 파라미터로 주입
     // Bean 들끼리 서로 의존성을 주입 받을 때 메서드 파라미터로도 주입 가능
@@ -59,6 +86,10 @@ public class RedisConfig {
         // value가 객체인 경우 사용 (알아서 JSON 형식으로 변환)
 //        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
         
+        // jwt 폐기 목록(hash) 필드 직렬화
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
+
         // 0번 DB와 연결된 객체(@Qualifier("rtInventory")) 사용
         redisTemplate.setConnectionFactory(redisConnectionFactory);
         return redisTemplate;
@@ -75,6 +106,16 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    @Bean
+    @Qualifier("productIndex")
+    public RedisTemplate<String, String> productIndexTemplate(@Qualifier("productIndex") RedisConnectionFactory redisConnectionFactory) {          // 템플릿 객체
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new StringRedisSerializer());
+
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        return redisTemplate;
+    }
 
     // redis pub/sub을 위한 연결 객체 생성
     @Bean
@@ -85,7 +126,7 @@ public class RedisConfig {
         configuration.setPort(port);
         
         // redis pub/sub 기능은 db에 값을 저장하는 기능이 아니므로, 특정 db에 의존적이지 않음
-        return new LettuceConnectionFactory(configuration);
+        return new LettuceConnectionFactory(configuration, clientConfiguration());
     }
 
     @Bean
@@ -94,6 +135,9 @@ public class RedisConfig {
         RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
         redisTemplate.setKeySerializer(new StringRedisSerializer());
         redisTemplate.setValueSerializer(new StringRedisSerializer());
+        // 알림 보관함(stream) 필드 직렬화
+        redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+        redisTemplate.setHashValueSerializer(new StringRedisSerializer());
 
         redisTemplate.setConnectionFactory(redisConnectionFactory);
         return redisTemplate;
@@ -104,11 +148,19 @@ public class RedisConfig {
     @Qualifier("ssePubSub")
     public RedisMessageListenerContainer redisMessageListenerContainer(
             @Qualifier("ssePubSub") RedisConnectionFactory redisConnectionFactory
-            , MessageListenerAdapter messageListenerAdapter) {
+            , @Qualifier("messageListenerAdapter") MessageListenerAdapter messageListenerAdapter
+            , @Qualifier("stockMessageListenerAdapter") MessageListenerAdapter stockMessageListenerAdapter
+            , SsePresenceService ssePresenceService
+            , @Qualifier("jwtRevocationListenerAdapter") MessageListenerAdapter jwtRevocationListenerAdapter) {
 
         RedisMessageListenerContainer container = new RedisMessageListenerContainer();
         container.setConnectionFactory(redisConnectionFactory);
-        container.addMessageListener(messageListenerAdapter, new PatternTopic("order-channel"));
+        // 모든 서버가 같은 채널을 받는 대신, 이 서버 전용 채널(sse-node:{nodeId})만 구독
+        container.addMessageListener(messageListenerAdapter, new ChannelTopic(ssePresenceService.getNodeChannel()));
+        // 상품별 실시간 재고 변경 채널
+        container.addMessageListener(stockMessageListenerAdapter, new PatternTopic(ProductStockStreamService.STOCK_CHANNEL));
+        // access token 폐기 채널
+        container.addMessageListener(jwtRevocationListenerAdapter, new ChannelTopic(JwtRevocationService.REVOCATION_CHANNEL));
         // 만약 여러 채널을 구독해야 하는 경우에는 아래 코드처럼 여러 개의 PatterTopic을 add 하거나 별도의 bean 객체 생성
         // container.addMessageListener(messageListenerAdapter, new PatternTopic("comment-channel"));
         return container;
@@ -123,4 +175,16 @@ public class RedisConfig {
         // 즉, 메세지가 수신되면 onMessage 메서드가 호출됨
         return new MessageListenerAdapter(sseAlarmService, "onMessage");
     }
+
+    // 재고 변경 채널에서 수신된 메세지를 처리하는 빈 객체
+    @Bean
+    public MessageListenerAdapter stockMessageListenerAdapter(ProductStockStreamService productStockStreamService) {
+        return new MessageListenerAdapter(productStockStreamService, "onMessage");
+    }
+
+    // 토큰 폐기 채널에서 수신된 메세지를 처리하는 빈 객체
+    @Bean
+    public MessageListenerAdapter jwtRevocationListenerAdapter(JwtRevocationService jwtRevocationService) {
+        return new MessageListenerAdapter(jwtRevocationService, "onMessage");
+    }
 }
@@ -0,0 +1,45 @@
+package com.order.order.common.config;
+
+import com.order.order.common.service.DatabaseStockStore;
+import com.order.order.common.service.InMemoryStockStore;
+import com.order.order.common.service.RedisStockStore;
+import com.order.order.common.service.StockStore;
+import com.order.order.common.service.StockStoreLoader;
+import com.order.order.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.RedisTemplate;
+
+// 재고 엔진 선택 (stock.engine : redis(기본) / memory / db)
+// memory 는 서버끼리 재고를 공유하지 않으므로 서버 1대로 운영하거나 테스트할 때만 사용
+@Configuration
+public class StockStoreConfig {
+
+    @Bean
+    public StockStore stockStore(@Value("${stock.engine:redis}") String engine
+            , @Value("${stock.memory.stripes:64}") int stripes
+            , @Qualifier("stockInventory") RedisTemplate<String, String> redisTemplate
+            , ProductRepository productRepository) {
+        switch (engine) {
+            case "redis":
+                return new RedisStockStore(redisTemplate);
+            case "memory":
+                return new InMemoryStockStore(stripes);
+            case "db":
+                return new DatabaseStockStore(productRepository);
+            default:
+                throw new IllegalArgumentException("지원하지 않는 재고 엔진입니다. stock.engine = " + engine);
+        }
+    }
+
+    // memory 엔진은 재시작하면 비어 있으므로 요청을 받기 전에 db 재고로 채움
+    @Bean
+    @ConditionalOnProperty(name = "stock.engine", havingValue = "memory")
+    public StockStoreLoader stockStoreLoader(StockStore stockStore, ProductRepository productRepository
+            , @Value("${stock.memory.load-batch-size:1000}") int batchSize) {
+        return new StockStoreLoader(stockStore, productRepository, batchSize);
+    }
+}
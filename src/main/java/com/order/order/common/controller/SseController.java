@@ -1,10 +1,15 @@
 package com.order.order.common.controller;
 
+import com.order.order.common.service.ProductStockStreamService;
+import com.order.order.common.service.ReadyAwareSseEmitter;
 import com.order.order.common.service.SseAlarmService;
 import com.order.order.common.service.SseEmitterRegistry;
+import com.order.order.common.service.SseInboxService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
@@ -17,23 +22,34 @@ import java.io.IOException;
 public class SseController {
 
     private final SseEmitterRegistry sseEmitterRegistry;
+    private final ProductStockStreamService productStockStreamService;
+    private final SseInboxService sseInboxService;
 
     // SseEmitter 객체를 return 에서 연결이 끊기지 않고 계속 알림을 보낼 수 있도록 함
     @GetMapping("/connect")
-    public SseEmitter subscribe() {
+    public SseEmitter subscribe(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         // sseEmitter 에 연결 요청이 들어온 사용자의 정보가 자동으로 세팅되어 있음
-        SseEmitter sseEmitter = new SseEmitter(14400 * 60 * 1000L);           // 10일 정도 emitter 유효 기간 설정
+        // 유효 기간은 sse.timeout-ms (만료 시 브라우저가 자동 재연결), 같은 사용자의 다른 탭 연결은 유지됨
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
-        sseEmitterRegistry.addSseEmitter(email, sseEmitter);
+        ReadyAwareSseEmitter sseEmitter = sseEmitterRegistry.addSseEmitter(email);
         try {
             sseEmitter.send(SseEmitter.event().name("connect").data("연결 완료"));
+            // 재연결이면 놓친 알림을 전송 (emitter 반환 후 별도 스레드에서 실행)
+            sseInboxService.replay(email, sseEmitter, lastEventId);
         } catch (IOException e) {
+            sseEmitterRegistry.remove(email, sseEmitter);
             throw new RuntimeException(e);
         }
         return sseEmitter;
     }
 
 
+    // 상품별 실시간 재고 구독 (로그인 불필요)
+    @GetMapping("/product/{productId}")
+    public SseEmitter subscribeProduct(@PathVariable Long productId) {
+        return productStockStreamService.subscribe(productId);
+    }
+
     @GetMapping("/disconnect")
     public void unSubscribe() {
         // key 를 매개변수로 넘겨 삭제
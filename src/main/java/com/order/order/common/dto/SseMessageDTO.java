@@ -14,4 +14,9 @@ public class SseMessageDTO {
     private String sender;
     private String receiver;
     private Long orderingId;
+    // 알림 보관함(redis stream) 레코드 id, sse 이벤트 id 로 사용
+    private String eventId;
+    // 묶음 알림인 경우 묶인 알림 수와 마지막 주문 id (orderingId 는 첫 주문 id)
+    private Integer count;
+    private Long lastOrderingId;
 }
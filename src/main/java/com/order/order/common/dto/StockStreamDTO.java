@@ -0,0 +1,16 @@
+package com.order.order.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class StockStreamDTO {
+
+    private Long productId;
+    private Integer stockQuantity;
+}
@@ -1,15 +1,18 @@
 package com.order.order.common.service;
 
 import com.order.order.common.dto.CommonErrorDTO;
+import com.order.order.member.service.LoginOverloadException;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 
 @Hidden     // swagger 에서 제외
 @ControllerAdvice
@@ -39,6 +42,30 @@ public class CommonExceptionHandler {
                 , HttpStatus.BAD_REQUEST);
     }
 
+    // 낙관적 락 재시도 후에도 충돌한 경우
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<?> optimisticLockingFailureException(OptimisticLockingFailureException e) {
+        log.error(e.getMessage());
+        return new ResponseEntity<>(new CommonErrorDTO(HttpStatus.CONFLICT.value(), "다른 요청과 충돌했습니다. 다시 시도해주세요.")
+                , HttpStatus.CONFLICT);
+    }
+
+    // 비밀번호 해시 작업이 처리 한도를 넘은 경우 (잠시 후 재시도)
+    @ExceptionHandler(LoginOverloadException.class)
+    public ResponseEntity<?> loginOverloadException(LoginOverloadException e) {
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(new CommonErrorDTO(HttpStatus.TOO_MANY_REQUESTS.value(), e.getMessage())
+                , HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    // 상태 코드를 지정해서 던진 예외 (구독자 수 초과 등)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> responseStatusException(ResponseStatusException e) {
+        log.warn(e.getMessage());
+        return new ResponseEntity<>(new CommonErrorDTO(e.getStatusCode().value(), e.getReason())
+                , e.getStatusCode());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> exception(Exception e) {
         log.error(e.getMessage());
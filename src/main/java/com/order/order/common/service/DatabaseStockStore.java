@@ -0,0 +1,90 @@
+package com.order.order.common.service;
+
+import com.order.order.product.repository.ProductRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// db 재고 (product.stock_quantity 에 직접 조건부 update)
+// 상품을 읽어서 java 에서 비교 후 dirty checking 으로 반영하면 동시 주문 시 갱신 유실/deadlock 이 생기므로
+// "재고가 충분하면 차감" 을 update 한 문장으로 처리하고 반영된 행 수로 성공 여부 판단
+// 주문 트랜잭션 안에서 호출되면 같은 트랜잭션으로 묶여 주문 실패(rollback) 시 차감도 함께 취소됨
+// redis 없이 db 만으로 재고 정합성을 지켜야 할 때 사용
+@Transactional
+public class DatabaseStockStore implements StockStore {
+
+    private final ProductRepository productRepository;
+
+    public DatabaseStockStore(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    @Override
+    public String engine() {
+        return "db";
+    }
+
+    @Override
+    public boolean isDatabase() {
+        return true;
+    }
+
+    // 상품 행이 있어야 반영됨 (상품 등록은 ProductService 에서 처리)
+    @Override
+    public void set(long productId, int quantity) {
+        productRepository.updateStockQuantity(productId, quantity);
+    }
+
+    @Override
+    public void setAll(long[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            productRepository.updateStockQuantity(productIds[i], quantities[i]);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public int get(long productId) {
+        Integer stockQuantity = productRepository.findStockQuantity(productId);
+        return stockQuantity == null ? NOT_FOUND : stockQuantity;
+    }
+
+    // in 조건 한 번으로 조회
+    @Override
+    @Transactional(readOnly = true)
+    public int[] getAll(long[] productIds) {
+        List<Long> productIdList = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            productIdList.add(productId);
+        }
+        Map<Long, Integer> stockMap = new HashMap<>();
+        for (Object[] row : productRepository.findStockQuantities(productIdList)) {
+            stockMap.put((Long) row[0], (Integer) row[1]);
+        }
+        int[] quantities = new int[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            quantities[i] = stockMap.getOrDefault(productIds[i], NOT_FOUND);
+        }
+        return quantities;
+    }
+
+    // 차감에 성공하면 행 lock 을 잡은 상태이므로 같은 트랜잭션에서 다시 읽은 값이 남은 재고
+    @Override
+    public int reserve(long productId, int quantity) {
+        if (productRepository.decreaseStockQuantity(productId, quantity) == 0) {
+            return NOT_FOUND;
+        }
+        return productRepository.findStockQuantity(productId);
+    }
+
+    @Override
+    public int release(long productId, int quantity) {
+        if (productRepository.increaseStockQuantity(productId, quantity) == 0) {
+            return NOT_FOUND;
+        }
+        return productRepository.findStockQuantity(productId);
+    }
+}
@@ -0,0 +1,220 @@
+package com.order.order.common.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 단일 서버용 메모리 재고 (여러 서버가 재고를 공유하지 않으므로 서버 1대 또는 테스트 용도)
+// 상품 id 를 stripe 로 나누고, stripe 마다 long key -> slot 위치 해시 테이블 + int 재고 배열을 가짐
+// - 재고 값은 AtomicIntegerArray 의 slot 에 저장하고 차감/복구는 CAS 로 처리 (lock 없음, Long/Integer boxing 없음)
+// - 새 상품 등록(slot 할당)만 stripe 단위 lock, 조회/차감/복구는 lock 없이 처리
+// - slot 은 한 번 할당되면 위치가 바뀌지 않음 (테이블이 커져도 재고 배열은 chunk 단위로 추가만 하므로 CAS 가 유실되지 않음)
+public class InMemoryStockStore implements StockStore {
+
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public InMemoryStockStore(int stripeCount) {
+        // stripe 수는 2의 거듭제곱으로 맞춤 (index 계산을 & 연산으로 하기 위함)
+        int size = stripeCount <= 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+    }
+
+    @Override
+    public String engine() {
+        return "memory";
+    }
+
+    @Override
+    public boolean isDatabase() {
+        return false;
+    }
+
+    @Override
+    public void set(long productId, int quantity) {
+        checkProductId(productId);
+        Stripe stripe = stripe(productId);
+        int slot = stripe.find(productId);
+        if (slot < 0) {
+            stripe.put(productId, quantity);
+            return;
+        }
+        stripe.values(slot).set(slot & Stripe.CHUNK_MASK, quantity);
+    }
+
+    @Override
+    public void setAll(long[] productIds, int[] quantities) {
+        for (int i = 0; i < productIds.length; i++) {
+            set(productIds[i], quantities[i]);
+        }
+    }
+
+    @Override
+    public int get(long productId) {
+        Stripe stripe = stripe(productId);
+        int slot = stripe.find(productId);
+        return slot < 0 ? NOT_FOUND : stripe.values(slot).get(slot & Stripe.CHUNK_MASK);
+    }
+
+    @Override
+    public int[] getAll(long[] productIds) {
+        int[] quantities = new int[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            quantities[i] = get(productIds[i]);
+        }
+        return quantities;
+    }
+
+    @Override
+    public int reserve(long productId, int quantity) {
+        Stripe stripe = stripe(productId);
+        int slot = stripe.find(productId);
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+        AtomicIntegerArray values = stripe.values(slot);
+        int index = slot & Stripe.CHUNK_MASK;
+        while (true) {
+            int remains = values.get(index);
+            if (remains < quantity) {
+                return NOT_FOUND;
+            }
+            if (values.compareAndSet(index, remains, remains - quantity)) {
+                return remains - quantity;
+            }
+        }
+    }
+
+    @Override
+    public int release(long productId, int quantity) {
+        Stripe stripe = stripe(productId);
+        int slot = stripe.find(productId);
+        if (slot < 0) {
+            return NOT_FOUND;
+        }
+        return stripe.values(slot).addAndGet(slot & Stripe.CHUNK_MASK, quantity);
+    }
+
+    private Stripe stripe(long productId) {
+        return stripes[(int) mix(productId) & stripeMask];
+    }
+
+    private void checkProductId(long productId) {
+        if (productId <= 0) {
+            throw new IllegalArgumentException("상품 id 는 1 이상이어야 합니다.");
+        }
+    }
+
+    // splitmix64 (연속된 상품 id 가 같은 stripe/버킷에 몰리지 않도록 섞음)
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static class Stripe {
+        private static final int CHUNK_SHIFT = 10;
+        private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+        private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+        // 조회 쪽은 volatile 로 최신 테이블/chunk 목록을 읽고, 변경은 put(lock) 안에서만
+        private volatile Table table = new Table(16);
+        private volatile AtomicIntegerArray[] chunks = new AtomicIntegerArray[0];
+        private int slotCount;
+
+        private int find(long productId) {
+            return table.find(productId);
+        }
+
+        private AtomicIntegerArray values(int slot) {
+            return chunks[slot >>> CHUNK_SHIFT];
+        }
+
+        // 새 상품 slot 할당 (재고 값을 먼저 쓰고 key 를 마지막에 공개해서 조회 쪽이 초기화 전 값을 보지 않도록 함)
+        private synchronized void put(long productId, int quantity) {
+            int slot = table.find(productId);
+            if (slot >= 0) {
+                values(slot).set(slot & CHUNK_MASK, quantity);
+                return;
+            }
+            slot = slotCount++;
+            if ((slot >>> CHUNK_SHIFT) == chunks.length) {
+                AtomicIntegerArray[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[chunks.length] = new AtomicIntegerArray(CHUNK_SIZE);
+                chunks = grown;
+            }
+            values(slot).set(slot & CHUNK_MASK, quantity);
+
+            Table current = table;
+            if ((current.size + 1) * 4 > current.capacity() * 3) {
+                table = current.grow(productId, slot);
+            } else {
+                current.put(productId, slot);
+            }
+        }
+    }
+
+    // 상품 id -> slot 위치 (open addressing, 선형 탐사)
+    // key 배열을 AtomicLongArray 로 두어 key 를 쓰기 전에 기록한 slot 값이 조회 쪽에 보이도록 함
+    // 삭제는 없고, 추가는 Stripe lock 안에서만
+    private static class Table {
+        private static final long EMPTY = 0L;
+
+        private final AtomicLongArray keys;
+        private final int[] slots;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            this.keys = new AtomicLongArray(capacity);
+            this.slots = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return mask + 1;
+        }
+
+        private int find(long productId) {
+            int index = (int) (mix(productId) >>> 32) & mask;
+            while (true) {
+                long key = keys.get(index);
+                if (key == EMPTY) {
+                    return -1;
+                }
+                if (key == productId) {
+                    return slots[index];
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private void put(long productId, int slot) {
+            int index = (int) (mix(productId) >>> 32) & mask;
+            while (keys.get(index) != EMPTY) {
+                index = (index + 1) & mask;
+            }
+            slots[index] = slot;
+            keys.set(index, productId);
+            size++;
+        }
+
+        // 두 배 크기 테이블에 기존 key + 새 key 를 채운 뒤 공개 (기존 테이블은 그대로 두므로 조회 중인 스레드에 영향 없음)
+        private Table grow(long productId, int slot) {
+            Table grown = new Table(capacity() * 2);
+            for (int i = 0; i < capacity(); i++) {
+                long key = keys.get(i);
+                if (key != EMPTY) {
+                    grown.put(key, slots[i]);
+                }
+            }
+            grown.put(productId, slot);
+            return grown;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.order.order.common.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+// @Version 충돌 시 트랜잭션 전체를 새로 시작해서 재시도
+// 충돌은 commit(flush) 시점에 발생하므로 재시도 단위는 트랜잭션 하나 (호출하는 쪽은 트랜잭션 밖이어야 함)
+// 충돌/재시도/최종 실패 횟수는 경로(path)별 metric 으로 기록
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    @Value("${optimistic-lock.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${optimistic-lock.backoff-ms:10}")
+    private long backoffMs;
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate newTransactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public OptimisticLockRetry(TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.transactionTemplate = transactionTemplate;
+        this.newTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T execute(String path, Supplier<T> supplier) {
+        return execute(transactionTemplate, path, supplier);
+    }
+
+    // 이미 commit 된 트랜잭션의 자원이 남아 있는 afterCommit 콜백 등에서 호출하는 경우
+    // REQUIRED 로 참여하면 변경 사항이 flush 되지 않으므로 항상 새 트랜잭션으로 실행
+    public <T> T executeInNewTransaction(String path, Supplier<T> supplier) {
+        return execute(newTransactionTemplate, path, supplier);
+    }
+
+    private <T> T execute(TransactionTemplate template, String path, Supplier<T> supplier) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return template.execute(status -> supplier.get());
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("optimistic.lock.conflict", "path", path).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("optimistic.lock.exhausted", "path", path).increment();
+                    log.error("optimistic lock retry exhausted. path = {}, message = {}", path, e.getMessage());
+                    throw e;
+                }
+                meterRegistry.counter("optimistic.lock.retry", "path", path).increment();
+                sleep(attempt);
+            }
+        }
+    }
+
+    // 동시에 충돌한 요청들이 같은 시점에 다시 부딪히지 않도록 대기 시간에 랜덤값 추가
+    private void sleep(int attempt) {
+        try {
+            Thread.sleep(backoffMs * attempt + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("재시도 중단");
+        }
+    }
+}
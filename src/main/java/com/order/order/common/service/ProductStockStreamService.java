@@ -0,0 +1,181 @@
+package com.order.order.common.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.order.common.dto.StockStreamDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 상품별 실시간 재고 SSE 스트림
+// 주문/취소로 재고가 바뀌면 상품별 최신 값만 모아두었다가(coalescing) 주기마다 한 번만 발행
+// 다른 서버에 연결된 구독자도 받을 수 있도록 redis pub/sub(stock-channel)으로 전파하고,
+// 각 서버는 받은 변경분을 다시 모아서 주기마다 상품당 최대 1개의 이벤트만 구독자에게 전송
+// 실제 전송은 연결별 전송 큐를 통해 sse dispatch 스레드에서 처리 (느린 구독자가 스케줄러 스레드를 잡고 있지 않도록)
+@Component
+@Slf4j
+public class ProductStockStreamService implements MessageListener {
+
+    public static final String STOCK_CHANNEL = "stock-channel";
+
+    @Value("${sse.stock.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // 로그인 없이 구독할 수 있으므로 서버당 전체 구독 수 제한 (초과 시 503)
+    @Value("${sse.stock.max-subscribers:10000}")
+    private int maxSubscribers;
+
+    // 연결별 전송 대기 큐 크기 (가득 차면 느린 연결로 보고 종료)
+    @Value("${sse.stock.send-queue-capacity:16}")
+    private int sendQueueCapacity;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final AsyncTaskExecutor executor;
+    private final Timer sendTimer;
+    private final Counter dropCounter;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // key : productId, value : 해당 상품을 구독 중인 연결 목록
+    private final Map<Long, Set<SseConnection>> subscriberMap = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    // 이 서버에서 발생한 재고 변경 (발행 대기, 상품별 최신 값만 유지)
+    private final Map<Long, Integer> localChangeMap = new ConcurrentHashMap<>();
+    // 다른 서버(자신 포함)에서 전파된 재고 변경 (전송 대기, 상품별 최신 값만 유지)
+    private final Map<Long, Integer> outboundMap = new ConcurrentHashMap<>();
+
+    public ProductStockStreamService(@Qualifier("ssePubSub") RedisTemplate<String, String> redisTemplate
+            , @Qualifier("sseDispatchExecutor") AsyncTaskExecutor executor
+            , MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.executor = executor;
+        this.sendTimer = Timer.builder("sse.stock.send.latency").register(meterRegistry);
+        this.dropCounter = Counter.builder("sse.stock.send.dropped").register(meterRegistry);
+        Gauge.builder("sse.stock.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long productId) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "재고 구독자 수가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+        }
+        SseEmitter sseEmitter = new SseEmitter(timeoutMs);
+        SseConnection sseConnection = new SseConnection("product:" + productId, sseEmitter, sendQueueCapacity, executor
+                , sendTimer, dropCounter, closed -> unsubscribe(productId, closed));
+        // 빈 목록 삭제(unsubscribe)와 겹쳐도 삭제된 목록에 추가되지 않도록 compute 안에서 추가
+        subscriberMap.compute(productId, (id, connectionSet) -> {
+            if (connectionSet == null) {
+                connectionSet = ConcurrentHashMap.newKeySet();
+            }
+            connectionSet.add(sseConnection);
+            return connectionSet;
+        });
+
+        // 연결 종료/타임아웃/에러 시 구독 해제
+        sseEmitter.onCompletion(() -> unsubscribe(productId, sseConnection));
+        sseEmitter.onTimeout(() -> unsubscribe(productId, sseConnection));
+        sseEmitter.onError(e -> unsubscribe(productId, sseConnection));
+
+        sseConnection.send(SseEmitter.event().name("connect").data("연결 완료"));
+        return sseEmitter;
+    }
+
+    // 재고 변경 알림 (주문/취소/관리자 재고 수정 시 호출)
+    public void onStockChanged(Long productId, int stockQuantity) {
+        localChangeMap.put(productId, stockQuantity);
+    }
+
+    @Scheduled(fixedDelayString = "${sse.stock.coalesce-interval-ms:500}")
+    public void flush() {
+        publishLocalChanges();
+        sendOutbound();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        try {
+            Map<Long, Integer> changeMap = objectMapper.readValue(message.getBody(), new TypeReference<Map<Long, Integer>>() {});
+            for (Map.Entry<Long, Integer> entry : changeMap.entrySet()) {
+                // 이 서버에 구독자가 있는 상품만 전송 대기
+                if (subscriberMap.containsKey(entry.getKey())) {
+                    outboundMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // 주기 동안 모인 변경분을 메세지 하나로 발행
+    private void publishLocalChanges() {
+        if (localChangeMap.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> changeMap = new HashMap<>();
+        for (Long productId : localChangeMap.keySet()) {
+            Integer stockQuantity = localChangeMap.remove(productId);
+            if (stockQuantity != null) {
+                changeMap.put(productId, stockQuantity);
+            }
+        }
+        try {
+            redisTemplate.convertAndSend(STOCK_CHANNEL, objectMapper.writeValueAsString(changeMap));
+        } catch (JsonProcessingException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // 상품별 최신 재고를 한 번만 직렬화해서 구독자 전원의 전송 큐에 넣음 (blocking 없음)
+    private void sendOutbound() {
+        for (Long productId : outboundMap.keySet()) {
+            Integer stockQuantity = outboundMap.remove(productId);
+            Set<SseConnection> connectionSet = subscriberMap.get(productId);
+            if (stockQuantity == null || connectionSet == null) {
+                continue;
+            }
+            String data;
+            try {
+                data = objectMapper.writeValueAsString(new StockStreamDTO(productId, stockQuantity));
+            } catch (JsonProcessingException e) {
+                log.error(e.getMessage());
+                continue;
+            }
+            for (SseConnection sseConnection : connectionSet) {
+                // 전송 실패/느린 연결은 SseConnection 이 종료하면서 구독 해제
+                sseConnection.send(SseEmitter.event().name("stock").data(data));
+            }
+        }
+    }
+
+    private void unsubscribe(Long productId, SseConnection sseConnection) {
+        AtomicBoolean removed = new AtomicBoolean(false);
+        subscriberMap.computeIfPresent(productId, (id, connectionSet) -> {
+            removed.set(connectionSet.remove(sseConnection));
+            return connectionSet.isEmpty() ? null : connectionSet;
+        });
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.order.order.common.service;
+
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// 컨트롤러가 emitter 를 반환하고 응답 전송이 시작되는 시점(응답 헤더 세팅)에 콜백 실행
+// 반환 전에 send 한 이벤트는 메모리에 쌓였다가 한 번에 전송되므로, 이벤트를 많이 보내는 작업(보관함 재전송 등)은 이 시점 이후에 시작
+public class ReadyAwareSseEmitter extends SseEmitter {
+
+    private final List<Runnable> readyCallbackList = new CopyOnWriteArrayList<>();
+
+    public ReadyAwareSseEmitter(Long timeout) {
+        super(timeout);
+    }
+
+    public void onReady(Runnable callback) {
+        readyCallbackList.add(callback);
+    }
+
+    @Override
+    protected void extendResponse(ServerHttpResponse outputMessage) {
+        super.extendResponse(outputMessage);
+        for (Runnable callback : readyCallbackList) {
+            callback.run();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.order.order.common.service;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// redis 재고 (key : 상품 id, value : 재고 수량)
+// 조회 후 차감(GET -> DECRBY)을 두 번의 명령으로 나누면 그 사이에 다른 주문이 끼어들어 초과 판매가 생기므로
+// 확인과 차감을 lua script 하나로 redis 안에서 원자적으로 실행
+public class RedisStockStore implements StockStore {
+
+    private static final RedisScript<Long> RESERVE_SCRIPT = new DefaultRedisScript<>(
+            "local remains = redis.call('GET', KEYS[1]) "
+                    + "if not remains then return -1 end "
+                    + "if tonumber(remains) < tonumber(ARGV[1]) then return -1 end "
+                    + "return redis.call('DECRBY', KEYS[1], ARGV[1])", Long.class);
+
+    // 없는 key 에 INCRBY 하면 증감량만으로 재고가 생기므로 존재할 때만 반영
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end "
+                    + "return redis.call('INCRBY', KEYS[1], ARGV[1])", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public RedisStockStore(RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public String engine() {
+        return "redis";
+    }
+
+    @Override
+    public boolean isDatabase() {
+        return false;
+    }
+
+    @Override
+    public void set(long productId, int quantity) {
+        redisTemplate.opsForValue().set(String.valueOf(productId), String.valueOf(quantity));
+    }
+
+    // pipeline 으로 한 번의 왕복에 전송
+    @Override
+    public void setAll(long[] productIds, int[] quantities) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < productIds.length; i++) {
+                connection.stringCommands().set(String.valueOf(productIds[i]).getBytes(StandardCharsets.UTF_8)
+                        , String.valueOf(quantities[i]).getBytes(StandardCharsets.UTF_8));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public int get(long productId) {
+        String remains = redisTemplate.opsForValue().get(String.valueOf(productId));
+        return remains == null ? NOT_FOUND : Integer.parseInt(remains);
+    }
+
+    // MGET 한 번으로 조회
+    @Override
+    public int[] getAll(long[] productIds) {
+        List<String> keyList = new ArrayList<>(productIds.length);
+        for (long productId : productIds) {
+            keyList.add(String.valueOf(productId));
+        }
+        List<String> valueList = redisTemplate.opsForValue().multiGet(keyList);
+        int[] quantities = new int[productIds.length];
+        for (int i = 0; i < productIds.length; i++) {
+            String remains = valueList == null ? null : valueList.get(i);
+            quantities[i] = remains == null ? NOT_FOUND : Integer.parseInt(remains);
+        }
+        return quantities;
+    }
+
+    @Override
+    public int reserve(long productId, int quantity) {
+        Long remains = redisTemplate.execute(RESERVE_SCRIPT, List.of(String.valueOf(productId)), String.valueOf(quantity));
+        return remains == null ? NOT_FOUND : remains.intValue();
+    }
+
+    @Override
+    public int release(long productId, int quantity) {
+        Long remains = redisTemplate.execute(RELEASE_SCRIPT, List.of(String.valueOf(productId)), String.valueOf(quantity));
+        return remains == null ? NOT_FOUND : remains.intValue();
+    }
+}
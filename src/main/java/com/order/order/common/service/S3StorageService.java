@@ -0,0 +1,180 @@
+package com.order.order.common.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// S3 파일 업로드/삭제
+// 파일 전체를 byte[] 로 heap 에 올리지 않고 InputStream 을 그대로 S3로 흘려보냄
+// 큰 파일은 multipart upload 로 나누어 part 단위로 병렬 전송 (동시에 메모리에 올라가는 part 수 제한)
+@Component
+@Slf4j
+public class S3StorageService {
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    // 이 크기 이상이면 multipart upload 사용
+    @Value("${cloud.aws.s3.multipart-threshold:16777216}")
+    private long multipartThreshold;
+
+    // part 크기 (S3 최소 part 크기는 5MB)
+    @Value("${cloud.aws.s3.part-size:8388608}")
+    private int partSize;
+
+    // 업로드 1건당 동시에 전송 중인 part 수 (heap 사용량 = partSize * partsInFlight)
+    @Value("${cloud.aws.s3.parts-in-flight:4}")
+    private int partsInFlight;
+
+    private final S3Client s3Client;
+    private final AsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    // 요청마다 meter 를 다시 조회하지 않도록 operation 별 timer 를 생성 시점에 등록
+    private final Map<String, Timer> timerMap;
+
+    public S3StorageService(S3Client s3Client, @Qualifier("s3UploadExecutor") AsyncTaskExecutor executor
+            , MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.timerMap = Stream.of("put", "multipart-upload", "get", "delete")
+                .collect(Collectors.toUnmodifiableMap(Function.identity()
+                        , operation -> Timer.builder("s3.request").tag("operation", operation).register(meterRegistry)));
+    }
+
+    // 파일 업로드 후 url 반환
+    public String upload(String fileName, InputStream inputStream, long size, String contentType) {
+        if (size < multipartThreshold) {
+            // 저장 객체 구성
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(fileName)
+                    .contentType(contentType)         // jpeg, mp4, ...
+                    .build();
+            // 크기를 알고 있으므로 stream 그대로 업로드
+            timer("put").record(() -> s3Client.putObject(putObjectRequest, RequestBody.fromInputStream(inputStream, size)));
+        } else {
+            timer("multipart-upload").record(() -> multipartUpload(fileName, inputStream, contentType));
+        }
+
+        // S3에서 파일 url 추출
+        return getUrl(fileName);
+    }
+
+    // 파일을 로컬 경로로 내려받기 (stream 복사)
+    public void download(String fileName, Path target) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (InputStream inputStream = s3Client.getObject(a -> a.bucket(bucket).key(fileName))) {
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이미지 다운로드 실패");
+        } finally {
+            sample.stop(timer("get"));
+        }
+    }
+
+    public void delete(String fileName) {
+        timer("delete").record(() -> s3Client.deleteObject(a -> a.bucket(bucket).key(fileName)));
+    }
+
+    public String getUrl(String fileName) {
+        return s3Client.utilities().getUrl(a -> a.bucket(bucket).key(fileName)).toExternalForm();
+    }
+
+    // s3 요청 소요 시간 (operation 별)
+    private Timer timer(String operation) {
+        return timerMap.get(operation);
+    }
+
+    // s3에서 이미지 삭제 방법 : url로 삭제하기는 어렵고 파일명 삭제
+    public String getFileName(String url) {
+        return url.substring(url.lastIndexOf("/") + 1);
+    }
+
+    private void multipartUpload(String fileName, InputStream inputStream, String contentType) {
+        String uploadId = s3Client.createMultipartUpload(a -> a.bucket(bucket).key(fileName).contentType(contentType)).uploadId();
+
+        List<Future<CompletedPart>> futureList = new ArrayList<>();
+        Semaphore semaphore = new Semaphore(partsInFlight);
+        try {
+            int partNumber = 1;
+            while (true) {
+                // 전송 중인 part 가 가득 차면 하나가 끝날 때까지 다음 part 를 읽지 않음
+                semaphore.acquire();
+                byte[] buffer = new byte[partSize];
+                int length = inputStream.readNBytes(buffer, 0, partSize);
+                if (length == 0) {
+                    semaphore.release();
+                    break;
+                }
+
+                int currentPartNumber = partNumber++;
+                futureList.add(executor.submit(() -> {
+                    try {
+                        UploadPartResponse uploadPartResponse = s3Client.uploadPart(a -> a.bucket(bucket)
+                                        .key(fileName)
+                                        .uploadId(uploadId)
+                                        .partNumber(currentPartNumber)
+                                        .contentLength((long) length)
+                                , RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+                        return CompletedPart.builder().partNumber(currentPartNumber).eTag(uploadPartResponse.eTag()).build();
+                    } finally {
+                        semaphore.release();
+                    }
+                }));
+
+                if (length < partSize) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completedPartList = new ArrayList<>();
+            for (Future<CompletedPart> future : futureList) {
+                completedPartList.add(future.get());
+            }
+            s3Client.completeMultipartUpload(a -> a.bucket(bucket).key(fileName).uploadId(uploadId)
+                    .multipartUpload(m -> m.parts(completedPartList)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(fileName, uploadId, futureList);
+            throw new IllegalArgumentException("이미지 업로드 실패");
+        } catch (IOException | ExecutionException | RuntimeException e) {
+            log.error(e.getMessage());
+            abort(fileName, uploadId, futureList);
+            throw new IllegalArgumentException("이미지 업로드 실패");
+        }
+    }
+
+    // 실패 시 이미 올라간 part 들이 S3에 남지 않도록 multipart upload 취소
+    private void abort(String fileName, String uploadId, List<Future<CompletedPart>> futureList) {
+        for (Future<CompletedPart> future : futureList) {
+            future.cancel(true);
+        }
+        s3Client.abortMultipartUpload(a -> a.bucket(bucket).key(fileName).uploadId(uploadId));
+    }
+}
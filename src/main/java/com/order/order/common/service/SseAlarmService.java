@@ -3,15 +3,25 @@ package com.order.order.common.service;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order.order.common.dto.SseMessageDTO;
+import com.order.order.ordering.event.OrderAlarmEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.connection.Message;
 import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 @Slf4j
@@ -19,11 +29,56 @@ public class SseAlarmService implements MessageListener {
 
     private final SseEmitterRegistry sseEmitterRegistry;
     private final RedisTemplate<String, String> redisTemplate;
+    private final SsePresenceService ssePresenceService;
+    private final SseInboxService sseInboxService;
+    private final Executor executor;
+    // ObjectMapper 는 thread-safe 하므로 메세지마다 새로 만들지 않고 공유
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 주문이 몰릴 때 수신자별로 알림을 모아서 한 번에 전송
+    // 묶음 알림은 이벤트명이 다르므로(ordered-batch) 클라이언트가 처리할 수 있을 때만 켬 (기본은 건별 ordered 전송)
+    @Value("${sse.alarm.batch.enabled:false}")
+    private boolean batchEnabled;
+
+    @Value("${sse.alarm.batch.window-ms:1000}")
+    private long batchWindowMs;
+
+    @Value("${sse.alarm.batch.max-size:500}")
+    private int batchMaxSize;
+
+    // key : 수신자 email, value : 현재 열려 있는 묶음 전송 window
+    private final Map<String, AlarmWindow> alarmWindowMap = new ConcurrentHashMap<>();
 
     public SseAlarmService(SseEmitterRegistry sseEmitterRegistry
-            , @Qualifier("ssePubSub") RedisTemplate<String, String> redisTemplate) {
+            , @Qualifier("ssePubSub") RedisTemplate<String, String> redisTemplate
+            , SsePresenceService ssePresenceService
+            , SseInboxService sseInboxService
+            , @Qualifier("sseDispatchExecutor") Executor executor) {
         this.sseEmitterRegistry = sseEmitterRegistry;
         this.redisTemplate = redisTemplate;
+        this.ssePresenceService = ssePresenceService;
+        this.sseInboxService = sseInboxService;
+        this.executor = executor;
+    }
+
+    // 주문 트랜잭션 commit 이후 별도 스레드풀에서 발송 (주문 요청이 알림 전송을 기다리지 않고, db 커넥션도 잡고 있지 않음)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderAlarm(OrderAlarmEvent orderAlarmEvent) {
+        try {
+            executor.execute(() -> publishMessage(orderAlarmEvent.getReceiver()
+                    , orderAlarmEvent.getSender(), orderAlarmEvent.getOrderingId()));
+        } catch (RejectedExecutionException e) {
+            // 발송 스레드풀이 가득 찬 경우 보관함에만 저장 (재연결 시 Last-Event-ID 로 전송됨)
+            log.warn("sse 발송 대기열 초과, 보관함에만 저장 orderingId = {}", orderAlarmEvent.getOrderingId());
+            try {
+                sseInboxService.append(orderAlarmEvent.getReceiver(), objectMapper.writeValueAsString(SseMessageDTO.builder()
+                        .sender(orderAlarmEvent.getSender())
+                        .receiver(orderAlarmEvent.getReceiver())
+                        .orderingId(orderAlarmEvent.getOrderingId()).build()));
+            } catch (JsonProcessingException ex) {
+                log.error(ex.getMessage());
+            }
+        }
     }
 
     // 특정 사용자에게 메세지 발송
@@ -34,8 +89,65 @@ public class SseAlarmService implements MessageListener {
                 .receiver(receiver)
                 .orderingId(orderingId).build();
 
+        try {
+            // 연결 여부와 관계없이 보관함에 먼저 저장하고, 레코드 id 를 이벤트 id 로 사용
+            sseMessageDTO.setEventId(sseInboxService.append(receiver, objectMapper.writeValueAsString(sseMessageDTO)));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+
+        if (!batchEnabled) {
+            deliver(sseMessageDTO);
+            return;
+        }
+
+        // 묶음 전송 모드
+        // 최근 window 동안 보낸 알림이 없으면(한가할 때) 바로 전송하고 window 시작
+        // window 가 열려 있으면(몰릴 때) 모아두었다가 flush 주기 또는 최대 개수 도달 시 한 번에 전송
+        long now = System.currentTimeMillis();
+        AtomicReference<SseMessageDTO> sendRef = new AtomicReference<>();
+        alarmWindowMap.compute(receiver, (key, alarmWindow) -> {
+            if (alarmWindow == null) {
+                sendRef.set(sseMessageDTO);
+                return new AlarmWindow(now);
+            }
+            alarmWindow.add(sseMessageDTO);
+            if (alarmWindow.count >= batchMaxSize) {
+                sendRef.set(alarmWindow.drain(receiver, now));
+            }
+            return alarmWindow;
+        });
+        if (sendRef.get() != null) {
+            deliver(sendRef.get());
+        }
+    }
+
+    // window 가 지난 묶음 전송, 그동안 알림이 없었던 수신자는 window 를 닫음 (다음 알림은 바로 전송)
+    @Scheduled(fixedDelayString = "${sse.alarm.batch.window-ms:1000}")
+    public void flushBatch() {
+        long now = System.currentTimeMillis();
+        for (String receiver : alarmWindowMap.keySet()) {
+            AtomicReference<SseMessageDTO> sendRef = new AtomicReference<>();
+            alarmWindowMap.computeIfPresent(receiver, (key, alarmWindow) -> {
+                if (now - alarmWindow.startedAt < batchWindowMs) {
+                    return alarmWindow;
+                }
+                if (alarmWindow.count == 0) {
+                    return null;
+                }
+                sendRef.set(alarmWindow.drain(receiver, now));
+                return alarmWindow;
+            });
+            if (sendRef.get() != null) {
+                deliver(sendRef.get());
+            }
+        }
+    }
+
+    // 수신자가 연결된 서버로 전송
+    private void deliver(SseMessageDTO sseMessageDTO) {
+        String receiver = sseMessageDTO.getReceiver();
         // 보낼 데이터를 json 형식으로 조립
-        ObjectMapper objectMapper = new ObjectMapper();
         String data;
         try {
             data = objectMapper.writeValueAsString(sseMessageDTO);
@@ -43,25 +155,22 @@ public class SseAlarmService implements MessageListener {
             throw new RuntimeException(e);
         }
 
-
         // emitter 객체를 통해 메세지 전송
         // admin 객체가 disconnect 되면 sseEmitter가 null이 되어 NullPointerException 발생 -> 실시간 메세지 전송 불가
         // 그렇기 때문에 try-catch 에서 에러 터뜨리지 말고 log 남겨주기
-        SseEmitter sseEmitter = sseEmitterRegistry.getEmitter(receiver);
-
         // disconnect 되는 동안은 오는 메세지들을 db에 저장하기
         // disconnect : 웹 브라우저에서 나가거나 로그아웃 했을 때
         // 사용자가 로그아웃이나 새로고침 후에 다시 화면에 들어왔을 대 알림 메세지가 남아있으려면 db에 추가적으로 저장 필요
-        // emitter 객체가 현재 서버에 있으면, 직접 알림 발송. 그렇지 않으면 redis에 publish
-        if (sseEmitter != null) {
-            try {
-                sseEmitter.send(SseEmitter.event().name("ordered").data(data));
-            } catch (IOException e) {
-                e.printStackTrace();
+        // emitter 객체가 현재 서버에 있으면, 직접 알림 발송
+        // 다른 서버에 연결(탭)이 있으면 presence 에 등록된 해당 서버의 채널로만 publish (오프라인이면 publish 하지 않음)
+        if (sseEmitterRegistry.isConnected(receiver)) {
+            sendAll(receiver, sseMessageDTO, data);
+        }
+        for (String nodeId : ssePresenceService.findNodes(receiver)) {
+            if (!nodeId.equals(ssePresenceService.getNodeId())) {
+                // convertAndSend(채널, 메세지);
+                redisTemplate.convertAndSend(ssePresenceService.nodeChannel(nodeId), data);
             }
-        } else {
-            // convertAndSend(채널, 메세지);
-            redisTemplate.convertAndSend("order-channel",  data);
         }
     }
 
@@ -70,29 +179,71 @@ public class SseAlarmService implements MessageListener {
     public void onMessage(Message message, byte[] pattern) {
         // Message : 실질적인 메세지가 담겨있는 객체. 여기서 메세지를 꺼낼 것임(data 가 들어오는 것)
         // pattern : 채널명
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             SseMessageDTO sseMessageDTO = objectMapper.readValue(message.getBody(), SseMessageDTO.class);
             // 여러 개의 채널을 구독하고 있을 경우, 채널명으로 분기 처리
             String channelName = new String(pattern);
-            log.info("sseMessageDTO = {}", sseMessageDTO);
-            log.info("pattern = {}", channelName);
-
-            SseEmitter sseEmitter = sseEmitterRegistry.getEmitter(sseMessageDTO.getReceiver());
+            log.debug("sseMessageDTO = {}", sseMessageDTO);
+            log.debug("pattern = {}", channelName);
 
             // disconnect 되는 동안은 오는 메세지들을 db에 저장하기
             // disconnect : 웹 브라우저에서 나가거나 로그아웃 했을 때
             // 사용자가 로그아웃이나 새로고침 후에 다시 화면에 들어왔을 대 알림 메세지가 남아있으려면 db에 추가적으로 저장 필요
             // emitter 객체가 현재 서버에 있으면, 직접 알림 발송. 그렇지 않으면 redis에 publish
-            if (sseEmitter != null) {
-                try {
-                    sseEmitter.send(SseEmitter.event().name("ordered").data(sseMessageDTO));
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
+            if (sseEmitterRegistry.isConnected(sseMessageDTO.getReceiver())) {
+                sendAll(sseMessageDTO.getReceiver(), sseMessageDTO, new String(message.getBody()));
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
+
+    // 사용자의 모든 연결(탭)의 전송 큐에 넣기만 함 (실제 전송은 연결별로 dispatch 스레드에서 처리)
+    private void sendAll(String receiver, SseMessageDTO sseMessageDTO, String data) {
+        // 묶음 알림은 이벤트명을 구분 (count, 주문 id 범위 포함)
+        String eventName = sseMessageDTO.getCount() == null ? "ordered" : "ordered-batch";
+        for (SseConnection sseConnection : sseEmitterRegistry.getConnections(receiver)) {
+            if (!sseConnection.send(SseEmitter.event().id(sseMessageDTO.getEventId()).name(eventName).data(data))) {
+                log.debug("느린 sse 연결 종료 receiver = {}", receiver);
+            }
+        }
+    }
+
+    // 수신자별 묶음 전송 window (alarmWindowMap.compute 안에서만 변경)
+    private static class AlarmWindow {
+        private long startedAt;
+        private int count;
+        private String sender;
+        private Long firstOrderingId;
+        private Long lastOrderingId;
+        private String lastEventId;
+
+        private AlarmWindow(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private void add(SseMessageDTO sseMessageDTO) {
+            if (count == 0) {
+                firstOrderingId = sseMessageDTO.getOrderingId();
+            }
+            count++;
+            sender = sseMessageDTO.getSender();
+            lastOrderingId = sseMessageDTO.getOrderingId();
+            lastEventId = sseMessageDTO.getEventId();
+        }
+
+        // 모인 알림을 묶음 메세지로 만들고 새 window 시작
+        private SseMessageDTO drain(String receiver, long now) {
+            SseMessageDTO sseMessageDTO = SseMessageDTO.builder()
+                    .sender(sender)
+                    .receiver(receiver)
+                    .orderingId(firstOrderingId)
+                    .lastOrderingId(lastOrderingId)
+                    .count(count)
+                    .eventId(lastEventId).build();
+            startedAt = now;
+            count = 0;
+            return sseMessageDTO;
+        }
+    }
 }
@@ -0,0 +1,115 @@
+package com.order.order.common.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+// sse 연결 하나와 전용 전송 큐
+// 호출한 스레드는 큐에 넣기만 하고, 실제 전송(blocking)은 dispatch 스레드풀에서 연결별로 순서대로 처리
+// 큐가 가득 찰 만큼 느린 연결은 종료 -> 클라이언트가 Last-Event-ID 로 재연결해서 보관함에서 다시 받아감
+public class SseConnection {
+
+    private final String email;
+    private final SseEmitter sseEmitter;
+    private final BlockingQueue<SseEmitter.SseEventBuilder> sendQueue;
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+    private final Executor executor;
+    private final Timer sendTimer;
+    private final Counter dropCounter;
+    private final Consumer<SseConnection> onClose;
+
+    public SseConnection(String email, SseEmitter sseEmitter, int queueCapacity, Executor executor
+            , Timer sendTimer, Counter dropCounter, Consumer<SseConnection> onClose) {
+        this.email = email;
+        this.sseEmitter = sseEmitter;
+        this.sendQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = executor;
+        this.sendTimer = sendTimer;
+        this.dropCounter = dropCounter;
+        this.onClose = onClose;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public SseEmitter getSseEmitter() {
+        return sseEmitter;
+    }
+
+    public int getQueueDepth() {
+        return sendQueue.size();
+    }
+
+    // 전송 예약 (blocking 없음), 느린 연결로 판단되어 버려진 경우 false
+    public boolean send(SseEmitter.SseEventBuilder event) {
+        if (closed.get()) {
+            return false;
+        }
+        if (!sendQueue.offer(event)) {
+            dropCounter.increment();
+            close(null);
+            return false;
+        }
+        scheduleDrain();
+        return true;
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 스레드풀이 가득 찬 경우 다음 send 때 다시 시도
+                draining.set(false);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!closed.get() && (event = sendQueue.poll()) != null) {
+                long start = System.nanoTime();
+                try {
+                    sseEmitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    close(e);
+                    return;
+                } finally {
+                    sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // drain 종료 직전에 들어온 이벤트 처리
+        if (!closed.get() && !sendQueue.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    // 연결 종료 (에러가 없으면 느린 연결로 인한 종료)
+    public void close(Throwable e) {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        sendQueue.clear();
+        onClose.accept(this);
+        if (e == null) {
+            sseEmitter.complete();
+        } else {
+            sseEmitter.completeWithError(e);
+        }
+    }
+}
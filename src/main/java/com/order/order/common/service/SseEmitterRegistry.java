@@ -1,28 +1,181 @@
 package com.order.order.common.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
+@Slf4j
 public class SseEmitterRegistry {
 
     // SseEmitter 는 연결된 사용자 정보(ip, macAddress 등)를 의미
     // ConcurrentHashMap 은 Thread-Safe 한 map (동시성 이슈 발생X)
-    private Map<String, SseEmitter> emitterMap = new ConcurrentHashMap<>();
+    // 한 사용자가 여러 탭/기기로 접속할 수 있으므로 사용자별로 연결 여러 개를 보관 (연결 순서대로)
+    private final Map<String, Deque<SseConnection>> emitterMap = new ConcurrentHashMap<>();
+    private final AtomicInteger liveCount = new AtomicInteger();
 
-    public void addSseEmitter(String email, SseEmitter sseEmitter) {
-        emitterMap.put(email, sseEmitter);
+    // 사용자당 최대 연결 수 (초과 시 가장 오래된 연결 종료)
+    @Value("${sse.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    // emitter 유효 기간 (만료되면 클라이언트가 자동 재연결)
+    @Value("${sse.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // 연결별 전송 대기 큐 크기 (가득 차면 느린 연결로 보고 종료)
+    @Value("${sse.send-queue-capacity:100}")
+    private int sendQueueCapacity;
+
+    private final SsePresenceService ssePresenceService;
+    private final AsyncTaskExecutor executor;
+    private final Timer sendTimer;
+    private final Counter dropCounter;
+
+    public SseEmitterRegistry(MeterRegistry meterRegistry, SsePresenceService ssePresenceService
+            , @Qualifier("sseDispatchExecutor") AsyncTaskExecutor executor) {
+        this.ssePresenceService = ssePresenceService;
+        this.executor = executor;
+        // 현재 서버의 살아있는 sse 연결 수
+        Gauge.builder("sse.connections.live", liveCount, AtomicInteger::get)
+                .register(meterRegistry);
+        // 연결별 전송 대기 이벤트 합계 / dispatch 스레드풀 대기 작업 수
+        Gauge.builder("sse.send.queue.depth", this, SseEmitterRegistry::getQueueDepth)
+                .register(meterRegistry);
+        // 가상 스레드 모드에서는 대기 큐가 없으므로 스레드풀일 때만 등록
+        if (executor instanceof ThreadPoolTaskExecutor threadPoolTaskExecutor) {
+            Gauge.builder("sse.dispatch.queue.depth", threadPoolTaskExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                    .register(meterRegistry);
+        }
+        this.sendTimer = Timer.builder("sse.send.latency").register(meterRegistry);
+        this.dropCounter = Counter.builder("sse.send.dropped").register(meterRegistry);
+    }
+
+    // emitter 생성 후 등록
+    // 완료/타임아웃/에러 시 registry 에서 제거되도록 콜백 등록
+    public ReadyAwareSseEmitter addSseEmitter(String email) {
+        ReadyAwareSseEmitter sseEmitter = new ReadyAwareSseEmitter(timeoutMs);
+        sseEmitter.onCompletion(() -> remove(email, sseEmitter));
+        sseEmitter.onTimeout(() -> remove(email, sseEmitter));
+        sseEmitter.onError(e -> remove(email, sseEmitter));
+        SseConnection sseConnection = new SseConnection(email, sseEmitter, sendQueueCapacity, executor
+                , sendTimer, dropCounter, closed -> remove(email, closed.getSseEmitter()));
+
+        // 마지막 연결 제거(remove)와 겹쳐도 삭제된 deque 에 추가되지 않도록 compute 안에서 추가
+        // 최대 연결 수를 넘으면 가장 오래된 연결부터 꺼내고, 종료(close -> remove 콜백)는 compute 밖에서 처리
+        List<SseConnection> evictedList = new ArrayList<>();
+        emitterMap.compute(email, (key, emitterDeque) -> {
+            if (emitterDeque == null) {
+                emitterDeque = new ConcurrentLinkedDeque<>();
+            }
+            emitterDeque.addLast(sseConnection);
+            liveCount.incrementAndGet();
+            while (emitterDeque.size() > maxConnectionsPerUser) {
+                SseConnection oldest = emitterDeque.pollFirst();
+                if (oldest == null) {
+                    break;
+                }
+                liveCount.decrementAndGet();
+                evictedList.add(oldest);
+            }
+            return emitterDeque;
+        });
+        // 이 서버에 연결이 있음을 redis presence 에 기록
+        ssePresenceService.online(email);
+
+        for (SseConnection evicted : evictedList) {
+            evicted.close(null);
+        }
+        return sseEmitter;
     }
 
+    // 사용자의 모든 연결 종료 (disconnect)
     public void removeEmitter(String email) {
-        emitterMap.remove(email);
+        Deque<SseConnection> emitterDeque = emitterMap.remove(email);
+        if (emitterDeque == null) {
+            return;
+        }
+        offline(email);
+        SseConnection sseConnection;
+        while ((sseConnection = emitterDeque.pollFirst()) != null) {
+            liveCount.decrementAndGet();
+            sseConnection.close(null);
+        }
+    }
+
+    public void remove(String email, SseEmitter sseEmitter) {
+        Deque<SseConnection> remain = emitterMap.computeIfPresent(email, (key, emitterDeque) -> {
+            if (emitterDeque.removeIf(sseConnection -> sseConnection.getSseEmitter() == sseEmitter)) {
+                liveCount.decrementAndGet();
+            }
+            return emitterDeque.isEmpty() ? null : emitterDeque;
+        });
+        // 마지막 연결이 끊기면 presence 에서 이 서버 제거
+        if (remain == null) {
+            offline(email);
+        }
+    }
+
+    // presence 제거 직전에 같은 사용자의 새 연결이 등록되었으면 다시 기록
+    // (새 연결의 online 이 offline 보다 먼저 실행되어 presence 가 빠지는 경우 방지)
+    private void offline(String email) {
+        ssePresenceService.offline(email);
+        if (emitterMap.containsKey(email)) {
+            ssePresenceService.online(email);
+        }
+    }
+
+    public Collection<SseConnection> getConnections(String email) {
+        Deque<SseConnection> emitterDeque = emitterMap.get(email);
+        return emitterDeque == null ? Collections.emptyList() : emitterDeque;
+    }
+
+    public boolean isConnected(String email) {
+        return emitterMap.containsKey(email);
+    }
+
+    public int getLiveCount() {
+        return liveCount.get();
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (Deque<SseConnection> emitterDeque : emitterMap.values()) {
+            for (SseConnection sseConnection : emitterDeque) {
+                depth += sseConnection.getQueueDepth();
+            }
+        }
+        return depth;
     }
 
-    public SseEmitter getEmitter(String email) {
-        return emitterMap.get(email);
+    // 주기적으로 heartbeat(comment) 전송 -> 끊어진 연결은 전송 실패로 감지해서 제거
+    // 모든 연결이 스케줄러 하나를 공유 (연결마다 스레드/타이머를 만들지 않음), 실제 전송은 연결별 큐를 통해 dispatch 스레드에서 처리
+    @Scheduled(fixedDelayString = "${sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        for (Deque<SseConnection> emitterDeque : emitterMap.values()) {
+            for (SseConnection sseConnection : emitterDeque) {
+                sseConnection.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+        // 연결이 남아있는 사용자들의 presence 갱신
+        ssePresenceService.refresh(emitterMap.keySet());
     }
 }
@@ -0,0 +1,117 @@
+package com.order.order.common.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.regex.Pattern;
+
+// 사용자별 알림 보관함 (redis stream)
+// key : sse:inbox:{email}, 레코드 id 를 sse 이벤트 id 로 사용
+// 재연결 시 브라우저가 보내는 Last-Event-ID 이후의 알림을 다시 전송 (db 를 거치지 않음)
+@Component
+@Slf4j
+public class SseInboxService {
+
+    private static final String INBOX_KEY = "sse:inbox:";
+    private static final String DATA_FIELD = "data";
+    // redis stream 레코드 id 형식 ({ms}-{seq})
+    private static final Pattern RECORD_ID_PATTERN = Pattern.compile("\\d{1,19}-\\d{1,19}");
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final AsyncTaskExecutor executor;
+
+    // 사용자별 보관 개수 (근사치로 trim)
+    @Value("${sse.inbox.max-len:1000}")
+    private long maxLen;
+
+    // 한 번에 읽어오는 개수
+    @Value("${sse.inbox.replay-batch-size:100}")
+    private int replayBatchSize;
+
+    public SseInboxService(@Qualifier("ssePubSub") RedisTemplate<String, String> redisTemplate
+            , @Qualifier("sseReplayExecutor") AsyncTaskExecutor executor) {
+        this.redisTemplate = redisTemplate;
+        this.executor = executor;
+    }
+
+    // 알림 저장 후 레코드 id 반환 (수신자가 오프라인이어도 저장됨)
+    public String append(String receiver, String data) {
+        MapRecord<String, String, String> record = StreamRecords
+                .string(Collections.singletonMap(DATA_FIELD, data))
+                .withStreamKey(INBOX_KEY + receiver);
+        RecordId recordId = redisTemplate.opsForStream().add(record,
+                RedisStreamCommands.XAddOptions.maxlen(maxLen).approximateTrimming(true));
+        return recordId == null ? null : recordId.getValue();
+    }
+
+    // lastEventId 이후의 알림을 재전송 예약
+    // 컨트롤러가 emitter 를 반환해서 응답 전송이 시작된 후 재전송 스레드풀에서 batch 단위로 전송
+    // (반환 전에 보내면 전부 메모리에 쌓이고, 요청 스레드도 재전송을 기다리지 않도록)
+    // 재전송 중 실시간으로 도착한 알림은 중복 전송될 수 있으므로 클라이언트는 이벤트 id 로 중복 제거
+    public void replay(String receiver, ReadyAwareSseEmitter sseEmitter, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        // 잘못된 Last-Event-ID 형식은 재전송 없이 실시간 전송만 진행
+        if (!RECORD_ID_PATTERN.matcher(lastEventId).matches()) {
+            log.debug("잘못된 Last-Event-ID = {}", lastEventId);
+            return;
+        }
+        sseEmitter.onReady(() -> {
+            try {
+                executor.execute(() -> send(receiver, sseEmitter, lastEventId));
+            } catch (RejectedExecutionException e) {
+                // 재전송 대기열이 가득 찬 경우, 클라이언트가 나중에 다시 연결하도록 알림
+                try {
+                    sseEmitter.send(SseEmitter.event().name("replay-skipped").data(lastEventId));
+                } catch (IOException | IllegalStateException ex) {
+                    log.debug("replay-skipped 전송 실패 receiver = {}", receiver);
+                }
+            }
+        });
+    }
+
+    private void send(String receiver, SseEmitter sseEmitter, String lastEventId) {
+        try {
+            String cursor = lastEventId;
+            while (true) {
+                List<MapRecord<String, Object, Object>> recordList = redisTemplate.opsForStream().range(INBOX_KEY + receiver,
+                        Range.rightUnbounded(Range.Bound.exclusive(cursor)),
+                        Limit.limit().count(replayBatchSize));
+                if (recordList == null || recordList.isEmpty()) {
+                    break;
+                }
+                for (MapRecord<String, Object, Object> record : recordList) {
+                    sseEmitter.send(SseEmitter.event()
+                            .id(record.getId().getValue())
+                            .name("ordered")
+                            .data(record.getValue().get(DATA_FIELD)));
+                    cursor = record.getId().getValue();
+                }
+                if (recordList.size() < replayBatchSize) {
+                    break;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // 전송 중 연결이 끊긴 경우 (연결 정리는 emitter 콜백에서 처리)
+            log.debug("sse 재전송 중단 receiver = {}, message = {}", receiver, e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("sse 재전송 실패 receiver = {}, message = {}", receiver, e.getMessage());
+        }
+    }
+}
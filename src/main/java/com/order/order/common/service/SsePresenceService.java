@@ -0,0 +1,83 @@
+package com.order.order.common.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+
+// sse 연결 위치(presence) 관리
+// key : sse:presence:{email} (zset), member : 연결을 가진 서버(node) id, score : 마지막 heartbeat 시각
+// 각 서버는 자기 전용 채널(sse-node:{nodeId})만 구독하고, 알림은 수신자가 연결된 서버의 채널로만 발행
+@Component
+public class SsePresenceService {
+
+    private static final String PRESENCE_KEY = "sse:presence:";
+    private static final String NODE_CHANNEL = "sse-node:";
+
+    // 서버 인스턴스 식별자 (기동할 때마다 새로 발급)
+    private final String nodeId = UUID.randomUUID().toString();
+    private final RedisTemplate<String, String> redisTemplate;
+
+    // heartbeat 가 이 시간 이상 갱신되지 않은 서버는 연결이 없는 것으로 간주 (서버가 비정상 종료된 경우 대비)
+    @Value("${sse.presence.stale-ms:45000}")
+    private long staleMs;
+
+    public SsePresenceService(@Qualifier("ssePubSub") RedisTemplate<String, String> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public String getNodeChannel() {
+        return nodeChannel(nodeId);
+    }
+
+    public String nodeChannel(String nodeId) {
+        return NODE_CHANNEL + nodeId;
+    }
+
+    // 이 서버에 사용자의 첫 연결이 생김
+    public void online(String email) {
+        refresh(Collections.singleton(email));
+    }
+
+    // 이 서버에서 사용자의 마지막 연결이 끊김
+    public void offline(String email) {
+        redisTemplate.opsForZSet().remove(PRESENCE_KEY + email, nodeId);
+    }
+
+    // 이 서버에 연결된 사용자 전체의 presence 갱신 (heartbeat 주기마다 한 번의 pipeline 으로 처리)
+    public void refresh(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        byte[] member = nodeId.getBytes(StandardCharsets.UTF_8);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String email : emails) {
+                byte[] key = (PRESENCE_KEY + email).getBytes(StandardCharsets.UTF_8);
+                connection.zSetCommands().zAdd(key, now, member);
+                // 오래된 서버 항목 정리, 사용자가 모든 서버에서 떠나면 key 자체도 만료
+                connection.zSetCommands().zRemRangeByScore(key, 0, now - staleMs);
+                connection.keyCommands().pExpire(key, staleMs * 2);
+            }
+            return null;
+        });
+    }
+
+    // 사용자의 연결을 가진 서버 목록 (빈 set 이면 오프라인)
+    public Set<String> findNodes(String email) {
+        Set<String> nodeSet = redisTemplate.opsForZSet()
+                .rangeByScore(PRESENCE_KEY + email, System.currentTimeMillis() - staleMs, Double.MAX_VALUE);
+        return nodeSet == null ? Collections.emptySet() : nodeSet;
+    }
+}
@@ -1,43 +1,97 @@
 package com.order.order.common.service;
 
-import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.data.redis.core.RedisTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 // 상품 등록 + 주문 등록 시 재고 처리
+// 실제 저장은 설정된 재고 엔진(StockStore)에 위임
 @Component
 public class StockInventoryService {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private final StockStore stockStore;
+    // 재고 명령마다 meter 를 다시 조회하지 않도록 operation 별 timer 를 생성 시점에 등록
+    private final Map<String, Timer> timerMap;
+
+    public StockInventoryService(StockStore stockStore, MeterRegistry meterRegistry) {
+        this.stockStore = stockStore;
+        this.timerMap = Stream.of("set", "set-all", "get", "get-all", "decrease", "increase")
+                .collect(Collectors.toUnmodifiableMap(Function.identity()
+                        , operation -> Timer.builder("stock.store").tag("engine", stockStore.engine())
+                                .tag("operation", operation).register(meterRegistry)));
+    }
 
-    public StockInventoryService(@Qualifier("stockInventory") RedisTemplate<String, String> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    // 재고 엔진이 db 자체인 경우 (rabbitmq 를 통한 db 재고 동기화, 엔티티 재고 변경과 중복 반영하지 않도록 확인용)
+    public boolean isDatabaseEngine() {
+        return stockStore.isDatabase();
     }
 
     // 상품 등록 시 재고 수량 세팅
     public void makeStockQuantity(Long productId, int quantity) {
-        // redis에 재고 수량 저장
-        redisTemplate.opsForValue().set(String.valueOf(productId), String.valueOf(quantity));      // 값을 key-value 형식으로 세팅
+        timer("set").record(() -> stockStore.set(productId, quantity));
     }
     
+    // 대량 등록 시 재고 수량 세팅
+    public void makeStockQuantities(Map<Long, Integer> stockMap) {
+        if (stockMap.isEmpty()) {
+            return;
+        }
+        long[] productIds = new long[stockMap.size()];
+        int[] quantities = new int[stockMap.size()];
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : stockMap.entrySet()) {
+            productIds[index] = entry.getKey();
+            quantities[index] = entry.getValue();
+            index++;
+        }
+        timer("set-all").record(() -> stockStore.setAll(productIds, quantities));
+    }
+
+    // 현재 재고 수량 조회 (재고 엔진에 없으면 null)
+    public Integer getStockQuantity(Long productId) {
+        int remains = timer("get").record(() -> stockStore.get(productId));
+        return remains == StockStore.NOT_FOUND ? null : remains;
+    }
+
+    // 여러 상품의 현재 재고 수량을 한 번에 조회 (재고 엔진에 없는 상품은 결과에서 제외)
+    public Map<Long, Integer> getStockQuantities(List<Long> productIdList) {
+        Map<Long, Integer> stockMap = new HashMap<>();
+        if (productIdList.isEmpty()) {
+            return stockMap;
+        }
+        long[] productIds = new long[productIdList.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = productIdList.get(i);
+        }
+        int[] quantities = timer("get-all").record(() -> stockStore.getAll(productIds));
+        for (int i = 0; i < productIds.length; i++) {
+            if (quantities[i] != StockStore.NOT_FOUND) {
+                stockMap.put(productIds[i], quantities[i]);
+            }
+        }
+        return stockMap;
+    }
+
     // 주문 성공 시 재고 수량 감소
+    // 재고가 부족하면 -1 (OrderService 단에서 0보다 작으면 에러 발생시키도록 설계함)
     public int decreaseStockQuantity(Long productId, int orderQuantity) {
-        String remainObject = redisTemplate.opsForValue().get(String.valueOf(productId));
-        int remains = Integer.parseInt(remainObject);
-        if (remains < orderQuantity) {
-            // OrderService 단에서 0보다 작으면 에러 발생시키도록 설계함
-            return -1;
-        } else {
-            // decrement(감소 시킬 key(String), 감소 시킬 수)
-            Long finalRemains = redisTemplate.opsForValue().decrement(String.valueOf(productId), orderQuantity);    // 남아있는 수량
-            return finalRemains.intValue();
-        }
+        return timer("decrease").record(() -> stockStore.reserve(productId, orderQuantity));
     }
     
-    
-    // 주문 취소 시 재고 수량 증가
+    // 주문 취소 시 재고 수량 증가 (재고 엔진에 없는 상품이면 -1)
     public int increaseStockQuantity(Long productId, int cancelQuantity) {
-        Long finalRemains = redisTemplate.opsForValue().increment(String.valueOf(productId), cancelQuantity);
-        return finalRemains.intValue();
+        return timer("increase").record(() -> stockStore.release(productId, cancelQuantity));
+    }
+
+    // 재고 명령 소요 시간 (엔진, operation 별)
+    private Timer timer(String operation) {
+        return timerMap.get(operation);
     }
 }
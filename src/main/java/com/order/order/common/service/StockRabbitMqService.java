@@ -5,21 +5,57 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.order.order.common.dto.StockRabbitMqDTO;
 import com.order.order.product.domain.Product;
 import com.order.order.product.repository.ProductRepository;
+import com.order.order.product.service.ProductVersionService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
 import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.QueueInformation;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class StockRabbitMqService {
 
+    public static final String STOCK_QUEUE = "stockDecreaseQueue";
+
     private final RabbitTemplate rabbitTemplate;
     private final ProductRepository productRepository;
+    private final ProductVersionService productVersionService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final MeterRegistry meterRegistry;
+    private final AmqpAdmin amqpAdmin;
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    // 메세지마다 meter 를 다시 조회하지 않도록 생성 시점에 한 번만 등록
+    private final Timer publishTimer;
+    private final Timer consumeSuccessTimer;
+    private final Timer consumeFailureTimer;
+
+    public StockRabbitMqService(RabbitTemplate rabbitTemplate, ProductRepository productRepository
+            , ProductVersionService productVersionService, OptimisticLockRetry optimisticLockRetry
+            , MeterRegistry meterRegistry, AmqpAdmin amqpAdmin) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.productRepository = productRepository;
+        this.productVersionService = productVersionService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.meterRegistry = meterRegistry;
+        this.amqpAdmin = amqpAdmin;
+        Gauge.builder("rabbitmq.queue.depth", queueDepth, AtomicInteger::get).tag("queue", STOCK_QUEUE)
+                .register(meterRegistry);
+        this.publishTimer = Timer.builder("rabbitmq.publish").tag("queue", STOCK_QUEUE).register(meterRegistry);
+        this.consumeSuccessTimer = consumeTimer("success");
+        this.consumeFailureTimer = consumeTimer("failure");
+    }
 
     // rabbitmq에 메세지 발행
     public void publish(Long productId, int productCount) {
@@ -31,7 +67,7 @@ public class StockRabbitMqService {
 //        map.put("productId", productId);
 //        map.put("productCount", productCount);
 
-        rabbitTemplate.convertAndSend("stockDecreaseQueue", stockRabbitMqDTO);
+        publishTimer.record(() -> rabbitTemplate.convertAndSend(STOCK_QUEUE, stockRabbitMqDTO));
     }
 
     // rabbitmq에 발행된 메세지를 수신
@@ -39,14 +75,46 @@ public class StockRabbitMqService {
     // 단일 스레드로 동작 -> 동시성 문제 발생X
     // Listener는 단일 스레드로 메세지를 처리하므로, 동시성 이슈 발생X
     // 메세지 처리 실패 시 그냥 유실 (예외 처리해서 다시 메세지 넣는 걸로 해결하면 됨(아래 코드는 해당 예외 처리하지 않음))
-    @Transactional
-    @RabbitListener(queues = "stockDecreaseQueue")
+    // 관리자 상품 수정과 동시에 같은 상품을 수정하면 @Version 충돌 -> 트랜잭션 단위로 재시도
+    @RabbitListener(queues = STOCK_QUEUE)
     public void subscribe(Message message) throws JsonProcessingException {
         String messageBody = new String(message.getBody());
         ObjectMapper objectMapper = new ObjectMapper();
         StockRabbitMqDTO stockRabbitMqDTO = objectMapper.readValue(messageBody, StockRabbitMqDTO.class);
-        Product product = productRepository.findById(stockRabbitMqDTO.getProductId()).orElseThrow(() -> new EntityNotFoundException("product is not found"));
-        product.updateStockQuantity(stockRabbitMqDTO.getProductCount());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Timer outcome = consumeSuccessTimer;
+        try {
+            optimisticLockRetry.execute("stock-consumer", () -> {
+                Product product = productRepository.findById(stockRabbitMqDTO.getProductId()).orElseThrow(() -> new EntityNotFoundException("product is not found"));
+                product.updateStockQuantity(stockRabbitMqDTO.getProductCount());
+                // 재고가 db 에 반영되었으므로 조건부 GET 버전 갱신
+                productVersionService.touch(product.getId(), product.getCategory());
+                return null;
+            });
+        } catch (RuntimeException e) {
+            outcome = consumeFailureTimer;
+            throw e;
+        } finally {
+            sample.stop(outcome);
+        }
+    }
+
+    private Timer consumeTimer(String outcome) {
+        return Timer.builder("rabbitmq.consume").tag("queue", STOCK_QUEUE).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    // 아직 소비되지 않은 메세지 수 (db 재고 반영 지연 정도)
+    // scrape 때마다 broker 에 묻지 않도록 주기적으로 조회해서 gauge 값으로 사용
+    @Scheduled(fixedDelayString = "${rabbitmq.queue-depth.interval-ms:10000}")
+    public void refreshQueueDepth() {
+        try {
+            QueueInformation queueInformation = amqpAdmin.getQueueInfo(STOCK_QUEUE);
+            if (queueInformation != null) {
+                queueDepth.set(queueInformation.getMessageCount());
+            }
+        } catch (AmqpException e) {
+            log.warn("rabbitmq 큐 상태 조회 실패 = {}", e.getMessage());
+        }
     }
 
 }
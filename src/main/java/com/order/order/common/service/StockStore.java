@@ -0,0 +1,33 @@
+package com.order.order.common.service;
+
+// 상품 재고 저장소 (stock.engine 설정으로 구현 선택, StockStoreConfig 참고)
+// - redis  : 여러 서버가 공유하는 redis 재고 (차감/복구는 lua script 로 원자적 처리)
+// - memory : 단일 서버용 메모리 재고 (lock-free, 서버 재시작 시 사라짐)
+// - db     : product.stock_quantity 에 조건부 update (db 가 곧 재고이므로 별도 동기화 불필요)
+// 상품 id 는 1 이상, 없는 상품은 NOT_FOUND 로 응답
+public interface StockStore {
+
+    int NOT_FOUND = -1;
+
+    // metric tag 등에 사용하는 엔진 이름
+    String engine();
+
+    // 재고가 db 의 상품 재고 그 자체인지 (true 면 rabbitmq 를 통한 db 동기화가 필요 없음)
+    boolean isDatabase();
+
+    void set(long productId, int quantity);
+
+    void setAll(long[] productIds, int[] quantities);
+
+    // 현재 재고 (없으면 NOT_FOUND)
+    int get(long productId);
+
+    // productIds 와 같은 순서로 재고 응답 (없는 상품은 NOT_FOUND)
+    int[] getAll(long[] productIds);
+
+    // 재고가 충분할 때만 차감하고 남은 재고 응답 (부족하거나 없는 상품이면 NOT_FOUND, 재고는 그대로)
+    int reserve(long productId, int quantity);
+
+    // 재고 복구(증감량 반영) 후 재고 응답 (없는 상품이면 NOT_FOUND)
+    int release(long productId, int quantity);
+}
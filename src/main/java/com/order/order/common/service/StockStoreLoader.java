@@ -0,0 +1,55 @@
+package com.order.order.common.service;
+
+import com.order.order.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+// db 재고(product.stock_quantity)를 재고 엔진에 적재
+// 모든 bean 생성 직후(웹 서버가 요청을 받기 전)에 한 번 실행되어, 재시작 직후 재고가 비어 "재고 부족" 으로 응답하지 않도록 함
+// rabbitmq 로 아직 db 에 반영되지 않은 주문이 있으면 그만큼 많게 적재되므로 큐를 비운 후 재시작
+@Slf4j
+public class StockStoreLoader implements SmartInitializingSingleton {
+
+    private final StockStore stockStore;
+    private final ProductRepository productRepository;
+    private final int batchSize;
+
+    public StockStoreLoader(StockStore stockStore, ProductRepository productRepository, int batchSize) {
+        this.stockStore = stockStore;
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int count = load();
+        log.info("재고 엔진 적재 완료 engine = {}, count = {}", stockStore.engine(), count);
+    }
+
+    // batch 단위로 id 순서대로 읽어서 setAll 로 반영, 적재한 상품 수 반환
+    public int load() {
+        Long lastId = 0L;
+        int count = 0;
+        while (true) {
+            List<Object[]> rowList = productRepository.findStockQuantitiesAfter(lastId, PageRequest.of(0, batchSize));
+            if (rowList.isEmpty()) {
+                return count;
+            }
+            long[] productIds = new long[rowList.size()];
+            int[] quantities = new int[rowList.size()];
+            for (int i = 0; i < rowList.size(); i++) {
+                productIds[i] = (Long) rowList.get(i)[0];
+                quantities[i] = (Integer) rowList.get(i)[1];
+            }
+            stockStore.setAll(productIds, quantities);
+            count += rowList.size();
+            lastId = productIds[productIds.length - 1];
+            if (rowList.size() < batchSize) {
+                return count;
+            }
+        }
+    }
+}
@@ -65,15 +65,8 @@ public class MemberController {
     public ResponseEntity<?> generateNewAt(@RequestBody RefreshTokenDTO refreshTokenDTO) {
         // rt 검증 로직
         // refresh 검증 + db의 값과 비교
-        Member member = jwtTokenProvider.validateRt(refreshTokenDTO.getRefreshToken());
-        
-        // at 신규 생성 로직
-        // refresh 토큰 안에 있는 email로 member 객체 찾기
-        String accessToken = jwtTokenProvider.createAtToken(member);
-
-        LoginResDTO loginResDTO = LoginResDTO.builder()
-                .accessToken(accessToken)
-                .build();
+        // at 신규 생성 + rt 교체(rotation), 사용된 rt 는 더 이상 쓸 수 없음
+        LoginResDTO loginResDTO = jwtTokenProvider.rotateRt(refreshTokenDTO.getRefreshToken());
 
         return new ResponseEntity<>(CommonDTO.builder()
                 .result(loginResDTO)
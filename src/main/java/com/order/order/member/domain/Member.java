@@ -39,4 +39,8 @@ public class Member extends BaseTimeEntity {
     public void updateDelYn(String delYn) {
         this.delYn = delYn;
     }
+
+    public void updatePassword(String password) {
+        this.password = password;
+    }
 }
@@ -0,0 +1,10 @@
+package com.order.order.member.service;
+
+// 비밀번호 해시 작업이 처리 한도를 넘은 경우 (대기 큐 초과/대기 시간 초과) -> 429 응답
+// 다른 스레드풀의 RejectedExecutionException 과 구분하기 위한 전용 예외
+public class LoginOverloadException extends RuntimeException {
+
+    public LoginOverloadException(String message) {
+        super(message);
+    }
+}
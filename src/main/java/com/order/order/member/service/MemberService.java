@@ -1,5 +1,6 @@
 package com.order.order.member.service;
 
+import com.order.order.common.auth.JwtRevocationService;
 import com.order.order.member.domain.Member;
 import com.order.order.member.dto.CreateMemberDTO;
 import com.order.order.member.dto.LoginReqDTO;
@@ -9,8 +10,8 @@ import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
@@ -24,9 +25,12 @@ import java.util.stream.Collectors;
 public class MemberService {
 
     private final MemberRepository memberRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final JwtRevocationService jwtRevocationService;
 
     // 회원가입
+    // 해시 생성(수백 ms)을 기다리는 동안 db 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행 (save 는 repository 트랜잭션)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long save(CreateMemberDTO createMemberDTO) {
         if (memberRepository.findByEmail(createMemberDTO.getEmail()).isPresent()) {
             throw new IllegalArgumentException("이미 가입된 이메일입니다.");
@@ -36,17 +40,19 @@ public class MemberService {
             throw new IllegalArgumentException("비밀번호는 8자 이상으로 입력해주세요.");
         }
 
-        Member member = memberRepository.save(createMemberDTO.toEntity(passwordEncoder.encode(createMemberDTO.getPassword())));
+        Member member = memberRepository.save(createMemberDTO.toEntity(passwordHashingService.encode(createMemberDTO.getPassword())));
         return member.getId();
     }
 
     // 로그인
+    // 비밀번호 검증을 기다리는 동안 db 커넥션을 잡고 있지 않도록 트랜잭션 없이 실행
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Member doLogin(LoginReqDTO loginReqDTO) {
         Optional<Member> optionalMember = memberRepository.findByEmail(loginReqDTO.getEmail());
 
         boolean check = true;
         if (optionalMember.isPresent()) {
-            if (!passwordEncoder.matches(loginReqDTO.getPassword(), optionalMember.get().getPassword())) {
+            if (!passwordHashingService.matches(loginReqDTO.getPassword(), optionalMember.get().getPassword())) {
                 // 비밀번호 불일치
                 check = false;
             }
@@ -58,7 +64,18 @@ public class MemberService {
             throw new IllegalArgumentException("이메일 또는 비밀번호가 일치하지 않습니다.");
         }
 
-        return optionalMember.get();
+        // work factor 설정이 바뀌었으면 로그인 성공한 평문 비밀번호로 다시 해시해서 저장
+        // 비밀번호는 이미 검증되었으므로 해시 작업이 몰려 거절되어도 로그인은 성공 처리 (다음 로그인 때 다시 시도)
+        Member member = optionalMember.get();
+        if (passwordHashingService.upgradeEncoding(member.getPassword())) {
+            try {
+                member.updatePassword(passwordHashingService.encode(loginReqDTO.getPassword()));
+                memberRepository.save(member);
+            } catch (LoginOverloadException e) {
+                log.warn("비밀번호 재해시 생략 memberId = {}", member.getId());
+            }
+        }
+        return member;
     }
 
     // 회원 목록 조회
@@ -81,6 +98,8 @@ public class MemberService {
         log.info("member = {}", member);
         member.updateDelYn("Y");
         log.info("member = {}", member);
+        // 탈퇴 전에 발급된 access token 폐기 (commit 이후 반영)
+        jwtRevocationService.revoke(email);
     }
 
 }
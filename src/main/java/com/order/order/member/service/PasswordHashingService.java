@@ -0,0 +1,95 @@
+package com.order.order.member.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// 비밀번호 해시 생성/검증 전용
+// bcrypt 는 CPU 를 많이 쓰므로 요청 스레드에서 직접 돌리지 않고 코어 수만큼의 전용 스레드풀에서만 실행
+// 대기 큐가 가득 차거나 대기 시간이 길어지면 LoginOverloadException -> 429 응답 (로그인이 몰려도 주문 등 다른 요청은 처리)
+@Component
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolTaskExecutor executor;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter encodeRejectedCounter;
+    private final Counter matchesRejectedCounter;
+
+    // 해시 작업 대기 최대 시간
+    @Value("${password.hash.timeout-ms:3000}")
+    private long timeoutMs;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder
+            , @Qualifier("passwordHashExecutor") ThreadPoolTaskExecutor executor
+            , MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.executor = executor;
+        this.encodeTimer = Timer.builder("password.hash.latency").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder("password.hash.latency").tag("operation", "matches").register(meterRegistry);
+        this.encodeRejectedCounter = Counter.builder("password.hash.rejected").tag("operation", "encode").register(meterRegistry);
+        this.matchesRejectedCounter = Counter.builder("password.hash.rejected").tag("operation", "matches").register(meterRegistry);
+    }
+
+    public String encode(String rawPassword) {
+        return run(encodeTimer, encodeRejectedCounter, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(matchesTimer, matchesRejectedCounter, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    // 저장된 해시의 work factor 가 현재 설정과 다르면 true (로그인 성공 시 재해시)
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Timer timer, Counter rejectedCounter, Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw reject(rejectedCounter);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw reject(rejectedCounter);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw reject(rejectedCounter);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private LoginOverloadException reject(Counter rejectedCounter) {
+        rejectedCounter.increment();
+        return new LoginOverloadException("요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
+    }
+}
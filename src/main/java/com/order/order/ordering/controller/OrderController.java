@@ -1,6 +1,7 @@
 package com.order.order.ordering.controller;
 
 import com.order.order.common.dto.CommonDTO;
+import com.order.order.common.service.StockInventoryService;
 import com.order.order.ordering.domain.Ordering;
 import com.order.order.ordering.dto.OrderCreateDTO;
 import com.order.order.ordering.service.OrderService;
@@ -18,12 +19,14 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final StockInventoryService stockInventoryService;
 
     // 주문 등록
     @PostMapping("/create")
     public ResponseEntity<?> create(@RequestBody List<OrderCreateDTO> orderCreateDTOList) {
-//        Long id = orderService.save(orderCreateDTOList);
-        Long id = orderService.saveConcurrent(orderCreateDTOList);
+        // 재고 엔진이 db 이면 주문 상품 전체를 상품 id 순서로 한 번에 차감하는 save 사용 (deadlock 방지)
+        Long id = stockInventoryService.isDatabaseEngine() ? orderService.save(orderCreateDTOList)
+                : orderService.saveConcurrent(orderCreateDTOList);
         return new ResponseEntity<>(CommonDTO.builder()
                 .result(id)
                 .status_code(HttpStatus.CREATED.value())
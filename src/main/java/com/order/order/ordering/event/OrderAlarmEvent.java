@@ -0,0 +1,15 @@
+package com.order.order.ordering.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 주문 완료(commit) 이후 알림 발송 요청
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderAlarmEvent {
+    private String receiver;
+    private String sender;
+    private Long orderingId;
+}
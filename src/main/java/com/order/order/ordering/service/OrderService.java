@@ -1,6 +1,6 @@
 package com.order.order.ordering.service;
 
-import com.order.order.common.service.SseAlarmService;
+import com.order.order.common.service.ProductStockStreamService;
 import com.order.order.common.service.StockInventoryService;
 import com.order.order.common.service.StockRabbitMqService;
 import com.order.order.member.domain.Member;
@@ -11,24 +11,32 @@ import com.order.order.ordering.domain.Ordering;
 import com.order.order.ordering.dto.OrderCreateDTO;
 import com.order.order.ordering.dto.OrderDetailResDTO;
 import com.order.order.ordering.dto.OrderListResDTO;
+import com.order.order.ordering.event.OrderAlarmEvent;
 import com.order.order.ordering.repository.OrderDetailRepository;
 import com.order.order.ordering.repository.OrderRepository;
 import com.order.order.product.domain.Product;
 import com.order.order.product.repository.ProductRepository;
+import com.order.order.product.service.ProductVersionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Transactional
 @Service
-@RequiredArgsConstructor
 public class OrderService {
 
     private final OrderRepository orderRepository;
@@ -36,35 +44,97 @@ public class OrderService {
     private final ProductRepository productRepository;
     private final StockInventoryService stockInventoryService;
     private final StockRabbitMqService stockRabbitMqService;
-    private final SseAlarmService sseAlarmService;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ProductStockStreamService productStockStreamService;
+    private final ProductVersionService productVersionService;
+    private final MeterRegistry meterRegistry;
+    // 주문마다 meter 를 다시 조회하지 않도록 생성 시점에 한 번만 등록
+    private final Timer productLoadTimer;
+    private final Timer orderPersistTimer;
+    // key : {path}:{outcome}
+    private final Map<String, Timer> orderSaveTimerMap = new HashMap<>();
 
-    // 주문 생성
+    public OrderService(OrderRepository orderRepository, MemberRepository memberRepository
+            , ProductRepository productRepository, StockInventoryService stockInventoryService
+            , StockRabbitMqService stockRabbitMqService, ApplicationEventPublisher applicationEventPublisher
+            , ProductStockStreamService productStockStreamService, ProductVersionService productVersionService
+            , MeterRegistry meterRegistry) {
+        this.orderRepository = orderRepository;
+        this.memberRepository = memberRepository;
+        this.productRepository = productRepository;
+        this.stockInventoryService = stockInventoryService;
+        this.stockRabbitMqService = stockRabbitMqService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.productStockStreamService = productStockStreamService;
+        this.productVersionService = productVersionService;
+        this.meterRegistry = meterRegistry;
+        this.productLoadTimer = Timer.builder("product.load").tag("source", "order").register(meterRegistry);
+        this.orderPersistTimer = Timer.builder("order.persist").register(meterRegistry);
+        for (String path : List.of("db", "concurrent")) {
+            for (String outcome : List.of("commit", "rollback")) {
+                orderSaveTimerMap.put(path + ":" + outcome, Timer.builder("order.save").tag("path", path)
+                        .tag("outcome", outcome).register(meterRegistry));
+            }
+        }
+    }
+
+    // 주문 생성 (redis 없이 db 만으로 재고 처리)
     // 메서드 앞에 synchronized 를 붙여 동시성 문제를 해결하려고 해도 제3의 시스템(DB 등) 도 멀티스레드로 동작하기 때문에 여전히 해결 안됨
+    // 상품을 읽어서 java 에서 재고를 비교하고 dirty checking 으로 반영하면
+    // 1. 동시에 접근하는 상황에서 update 값의 정합성이 깨지고 갱신 이상 발생 (주문은 100개인데, 재고는 50개만 빠진 경우)
+    // 2. 주문마다 상품 lock 을 잡는 순서가 달라 deadlock (교착 상태) 발생
+    // -> "재고가 충분하면 차감" 을 db 의 조건부 update 로 처리하고, 모든 주문 상품을 id 순서로 정렬해서 jdbc batch 한 번에 전송
+    //    반영된 행 수가 0 인 상품이 있으면 예외를 발생시켜 전체 rollback (부분 성공 X)
     public Long save(List<OrderCreateDTO> orderCreateDTOList) {
+        recordUntilCompletion(Timer.start(meterRegistry), "db");
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         Member member = memberRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("로그인 후 이용 가능"));
 
-        Ordering ordering = Ordering.builder().member(member).build();
-
+        // 같은 상품이 여러 줄이면 수량을 합쳐서 상품 id 순서로 정렬
+        Map<Long, Integer> quantityMap = new TreeMap<>();
         for (OrderCreateDTO orderCreateDTO : orderCreateDTOList) {
-            Product product = productRepository.findById(orderCreateDTO.getProductId())
-                    .orElseThrow(() -> new EntityNotFoundException("product is not found"));
+            if (orderCreateDTO.getProductId() == null) {
+                throw new IllegalArgumentException("상품 id 는 필수입니다.");
+            }
+            // 음수 수량이면 조건부 update 가 재고를 늘리게 되므로 막음
+            if (orderCreateDTO.getProductCount() == null || orderCreateDTO.getProductCount() <= 0) {
+                throw new IllegalArgumentException("주문 수량은 1개 이상이어야 합니다.");
+            }
+            quantityMap.merge(orderCreateDTO.getProductId(), orderCreateDTO.getProductCount(), Integer::sum);
+        }
+        long[] productIds = new long[quantityMap.size()];
+        int[] quantities = new int[quantityMap.size()];
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : quantityMap.entrySet()) {
+            productIds[index] = entry.getKey();
+            quantities[index] = entry.getValue();
+            index++;
+        }
 
-            if (product.getStockQuantity() < orderCreateDTO.getProductCount()) {
-                // 부분 성공되면 안되기 때문에 에러 발생시켜 rollback
-                // 예외를 강제 발생시켜 모두 임시 저장 사항들을 rollback 처리
+        int[] updatedRows = productRepository.decreaseStockQuantities(productIds, quantities);
+        for (int i = 0; i < productIds.length; i++) {
+            if (updatedRows[i] == 0) {
+                if (!productRepository.existsById(productIds[i])) {
+                    throw new EntityNotFoundException("product is not found");
+                }
                 throw new IllegalArgumentException("재고가 부족합니다.");
             }
+        }
 
-            // 상품 재고 조정
-            // 1. 동시에 접근하는 상황에서 update 값의 정합성이 깨지고 갱신 이상 발생 (주문은 100개인데, 재고는 50개만 빠진 경우)
-            // 2. spring 버전이나 mysql 버전에 따라 jpa 에서 강제 에러 (deadlock) 를 유발시켜 대부분의 요청 실패 발생
-            //    (주문 100개 중에 20개만 성공, 80개는 deadlock(교착 상태)으로 인한 에러)
-//            product.setStockQuantity(product.getStockQuantity() - orderCreateDTO.getProductCount());
-            product.updateStockQuantity(orderCreateDTO.getProductCount());
+        // 차감된 재고를 구독자에게 전파하고 조건부 GET 버전 갱신 (둘 다 commit 이후)
+        if (!quantityMap.isEmpty()) {
+            for (Object[] row : productRepository.findCategoryAndStockQuantities(quantityMap.keySet())) {
+                Long productId = (Long) row[0];
+                onStockChangedAfterCommit(productId, (Integer) row[2]);
+                productVersionService.touch(productId, (String) row[1]);
+            }
+        }
 
+        Ordering ordering = Ordering.builder().member(member).build();
+        for (OrderCreateDTO orderCreateDTO : orderCreateDTOList) {
+            // 재고는 이미 반영했으므로 상품은 조회하지 않고 참조(fk)만 사용
             OrderDetail orderDetail = OrderDetail.builder()
-                    .product(product)
+                    .product(productRepository.getReferenceById(orderCreateDTO.getProductId()))
                     .quantity(orderCreateDTO.getProductCount())
                     .ordering(ordering)
                     .build();
@@ -72,7 +142,10 @@ public class OrderService {
             ordering.getOrderDetailList().add(orderDetail);
 //            orderDetailRepository.save(orderDetail);                      // cascading 사용하지 않는 경우
         }
-        orderRepository.save(ordering);
+        orderPersistTimer.record(() -> orderRepository.save(ordering));
+
+        // 주문 성공 시 admin 유저에게 알림 메세지 전송 (commit 이후 별도 스레드에서 발송)
+        applicationEventPublisher.publishEvent(new OrderAlarmEvent("admin@email.com", email, ordering.getId()));
 
         return ordering.getId();
     }
@@ -81,13 +154,16 @@ public class OrderService {
     // 격리 레벨을 낮춤으로서, 성능 향상과 lock 관련 문제 원천 차단
     @Transactional(isolation = Isolation.READ_COMMITTED)
     public Long saveConcurrent(List<OrderCreateDTO> orderCreateDTOList) {
+        // commit 까지 포함한 전체 소요 시간 기록
+        recordUntilCompletion(Timer.start(meterRegistry), "concurrent");
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
         Member member = memberRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("로그인 후 이용 가능"));
 
         Ordering ordering = Ordering.builder().member(member).build();
 
         for (OrderCreateDTO orderCreateDTO : orderCreateDTOList) {
-            Product product = productRepository.findById(orderCreateDTO.getProductId())
+            Product product = productLoadTimer
+                    .record(() -> productRepository.findById(orderCreateDTO.getProductId()))
                     .orElseThrow(() -> new EntityNotFoundException("product is not found"));
 
             // redis에서 재고 수량 확인 및 재고 수량감소 처리
@@ -95,6 +171,10 @@ public class OrderService {
             if (newQuantity < 0) {
                 throw new IllegalArgumentException("재고 부족");
             }
+            // 상품 재고 구독자에게 실시간 재고 전파
+            onStockChangedAfterCommit(product.getId(), newQuantity);
+            // 목록/상세 응답에는 실시간 재고가 덮어씌워지므로, db 반영(rabbitmq 소비)을 기다리지 않고 조건부 GET 버전 갱신 (commit 이후)
+            productVersionService.touch(product.getId(), product.getCategory());
 
             OrderDetail orderDetail = OrderDetail.builder()
                     .product(product)
@@ -106,13 +186,16 @@ public class OrderService {
 
             // 큐에 메세지를 담는다.
             // rdb 에 사후 update를 위한 메세지 발행 (비동기 처리)
-            stockRabbitMqService.publish(orderCreateDTO.getProductId(), orderCreateDTO.getProductCount());
+            // 재고 엔진이 db 이면 이미 db 재고가 차감되었으므로 발행하지 않음
+            if (!stockInventoryService.isDatabaseEngine()) {
+                stockRabbitMqService.publish(orderCreateDTO.getProductId(), orderCreateDTO.getProductCount());
+            }
         }
 
-        orderRepository.save(ordering);
+        orderPersistTimer.record(() -> orderRepository.save(ordering));
         
-        // 주문 성공 시 admin 유저에게 알림 메세지 전송
-        sseAlarmService.publishMessage("admin@email.com", email, ordering.getId());
+        // 주문 성공 시 admin 유저에게 알림 메세지 전송 (commit 이후 별도 스레드에서 발송)
+        applicationEventPublisher.publishEvent(new OrderAlarmEvent("admin@email.com", email, ordering.getId()));
 
         return ordering.getId();
     }
@@ -164,22 +247,82 @@ public class OrderService {
     
     
     // 주문 취소
+    // db 재고는 엔티티 값을 읽어서 더하지 않고 update 한 문장으로 증가 (재고 소비/관리자 재고 수정과 @Version 충돌 X)
+    // 재고 엔진(redis, memory) 은 rollback 되지 않으므로 commit 이후에 증가 (실패한 취소를 재시도해도 중복 반영 X)
     public Ordering cancel(Long id) {
         // Ordering의 DB 상태값 변경 (ORDERED -> CANCELED)
         Ordering ordering = orderRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("product is not found"));
+        if (ordering.getOrderStatus() == OrderStatus.CANCELED) {
+            throw new IllegalArgumentException("이미 취소된 주문입니다.");
+        }
         ordering.cancelStatus();
-        
 
         for (OrderDetail orderDetail : ordering.getOrderDetailList()) {
+            Product product = orderDetail.getProduct();
+            if (stockInventoryService.isDatabaseEngine()) {
+                // 재고 엔진이 db 이면 db 반영이 곧 재고 반영
+                int newQuantity = stockInventoryService.increaseStockQuantity(product.getId(), orderDetail.getQuantity());
+                if (newQuantity >= 0) {
+                    onStockChangedAfterCommit(product.getId(), newQuantity);
+                }
+            } else {
+                // rdb에 재고 업데이트
+                productRepository.increaseStockQuantity(product.getId(), orderDetail.getQuantity());
+                // redis의 재고 값 증가 (commit 이후)
+                releaseAfterCommit(product.getId(), orderDetail.getQuantity());
+            }
 
-            // rdb에 재고 업데이트
-            orderDetail.getProduct().cancelOrder(orderDetail.getQuantity());
-
-            // redis의 재고 값 증가
-            stockInventoryService.increaseStockQuantity(orderDetail.getProduct().getId()
-                    , orderDetail.getQuantity());
+            // 상품 조회 조건부 GET 버전 갱신 (commit 이후)
+            productVersionService.touch(product.getId(), product.getCategory());
         }
 
         return ordering;
     }
+
+    // 재고 엔진에 취소 수량 반영 후 구독자에게 전파 (commit 이후)
+    private void releaseAfterCommit(Long productId, int quantity) {
+        Runnable release = () -> {
+            int newQuantity = stockInventoryService.increaseStockQuantity(productId, quantity);
+            if (newQuantity >= 0) {
+                productStockStreamService.onStockChanged(productId, newQuantity);
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release.run();
+            }
+        });
+    }
+
+    // 재고 구독자에게 실시간 재고 전파 (rollback 된 재고가 전파되지 않도록 commit 이후)
+    private void onStockChangedAfterCommit(Long productId, int stockQuantity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            productStockStreamService.onStockChanged(productId, stockQuantity);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                productStockStreamService.onStockChanged(productId, stockQuantity);
+            }
+        });
+    }
+
+    // 트랜잭션 종료(commit/rollback) 시점에 소요 시간 기록
+    private void recordUntilCompletion(Timer.Sample sample, String path) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                sample.stop(orderSaveTimerMap.get(path + ":" + (status == STATUS_COMMITTED ? "commit" : "rollback")));
+            }
+        });
+    }
 }
@@ -3,11 +3,15 @@ package com.order.order.product.controller;
 import com.order.order.common.dto.CommonDTO;
 import com.order.order.product.domain.ProductSearchDTO;
 import com.order.order.product.dto.ProductCreateDTO;
-import com.order.order.product.dto.ProductResDTO;
 import com.order.order.product.dto.ProductUpdateDTO;
+import com.order.order.product.dto.ProductImportResDTO;
+import com.order.order.product.dto.ProductResDTO;
+import com.order.order.product.dto.ProductStockUpdateDTO;
+import com.order.order.product.service.ProductImportService;
 import com.order.order.product.service.ProductService;
+import com.order.order.product.service.ProductVersionService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
@@ -15,6 +19,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
 
 
 @RestController
@@ -23,6 +30,8 @@ import org.springframework.web.bind.annotation.*;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductVersionService productVersionService;
     
     // 상품 등록
     @PostMapping("/create")
@@ -36,21 +45,47 @@ public class ProductController {
     }
 
     // 상품 목록 조회 + 페이징 처리 + 검색
+    // slice=true 인 경우 전체 개수 없이 다음 페이지 존재 여부만 응답 (무한 스크롤용, count 쿼리 X)
     @GetMapping("/list")
     public ResponseEntity<?> findAll(@PageableDefault(sort = "id", direction = Sort.Direction.DESC) Pageable pageable
-            , ProductSearchDTO productSearchDTO) {
-        Page<ProductResDTO> productSearchDTOPage = productService.findAll(pageable, productSearchDTO);
+            , ProductSearchDTO productSearchDTO
+            , @RequestParam(defaultValue = "false") boolean slice
+            , WebRequest webRequest) {
+        // 목록 버전이 그대로면 조회 없이 304 응답 (If-None-Match / If-Modified-Since)
+        // 주문으로 redis 재고가 바뀌면 주문 commit 시점에 버전이 갱신되므로 목록의 실시간 재고도 함께 반영됨
+        long version = productVersionService.getListVersion(productSearchDTO.getCategory());
+        if (webRequest.checkNotModified("l-" + version, version)) {
+            return null;
+        }
+
+        Object result;
+        if (slice) {
+            result = productService.findSlice(pageable, productSearchDTO);
+        } else {
+            result = productService.findAll(pageable, productSearchDTO);
+        }
         return new ResponseEntity<>(CommonDTO.builder()
-                .result(productSearchDTOPage)
+                .result(result)
                 .status_code(HttpStatus.OK.value())
                 .status_message("상품 목록 조회 성공").build(), HttpStatus.OK);
     }
 
     // 상품 상세 정보 조회
     @GetMapping("/detail/{id}")
-    public ResponseEntity<?> findById(@PathVariable Long id) {
+    public ResponseEntity<?> findById(@PathVariable Long id, WebRequest webRequest) {
+        // 상품 정보/재고가 그대로면 조회 없이 304 응답 (If-None-Match / If-Modified-Since)
+        Long version = productVersionService.findProductVersion(id);
+        if (version != null && webRequest.checkNotModified(productVersionService.detailETag(id, version), version)) {
+            return null;
+        }
+        ProductResDTO productResDTO = productService.findById(id);
+        // 버전이 없으면 상품이 존재하는 것을 확인한 후에 만들고 ETag 헤더 세팅
+        if (version == null) {
+            version = productVersionService.initProductVersion(id);
+            webRequest.checkNotModified(productVersionService.detailETag(id, version), version);
+        }
         return new ResponseEntity<>(CommonDTO.builder()
-                .result(productService.findById(id))
+                .result(productResDTO)
                 .status_code(HttpStatus.OK.value())
                 .status_message("상품 상세 조회 성공").build(), HttpStatus.OK);
     }
@@ -66,4 +101,39 @@ public class ProductController {
                 .status_code(HttpStatus.OK.value())
                 .status_message("상품 수정 성공").build(), HttpStatus.OK);
     }
+
+    // 기존 상품 이미지 파생본(썸네일 등) 일괄 생성
+    @PostMapping("/image/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> backfillImageVariants() {
+        boolean started = productService.backfillImageVariants();
+        return new ResponseEntity<>(CommonDTO.builder()
+                .result(started)
+                .status_code(HttpStatus.ACCEPTED.value())
+                .status_message(started ? "이미지 파생본 생성 시작" : "이미 실행 중인 작업이 있습니다").build(), HttpStatus.ACCEPTED);
+    }
+
+    // 상품 대량 등록 (csv 또는 ndjson 을 stream 으로 읽어 청크 단위 batch insert)
+    // csv 는 첫 줄에 컬럼명(name,category,price,stockQuantity) 필요
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> importProducts(HttpServletRequest request) throws IOException {
+        boolean csv = request.getContentType().startsWith("text/csv");
+        ProductImportResDTO productImportResDTO = productImportService.importProducts(request.getInputStream(), csv);
+        return new ResponseEntity<>(CommonDTO.builder()
+                .result(productImportResDTO)
+                .status_code(HttpStatus.OK.value())
+                .status_message("상품 대량 등록 완료").build(), HttpStatus.OK);
+    }
+
+    // 관리자 재고 수정 (증감량 기준, 음수면 감소)
+    @PatchMapping("/stock/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> adjustStock(@PathVariable Long id, @RequestBody ProductStockUpdateDTO productStockUpdateDTO) {
+        int stockQuantity = productService.adjustStock(id, productStockUpdateDTO);
+        return new ResponseEntity<>(CommonDTO.builder()
+                .result(stockQuantity)
+                .status_code(HttpStatus.OK.value())
+                .status_message("재고 수정 성공").build(), HttpStatus.OK);
+    }
 }
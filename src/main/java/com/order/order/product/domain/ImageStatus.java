@@ -0,0 +1,7 @@
+package com.order.order.product.domain;
+
+// 상품 이미지 처리 상태
+// PENDING : db 저장 후 S3 업로드 대기/진행 중, READY : 업로드 완료, FAILED : 재시도 후에도 업로드 실패
+public enum ImageStatus {
+    NONE, PENDING, READY, FAILED
+}
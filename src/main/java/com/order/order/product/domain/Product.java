@@ -1,6 +1,7 @@
 package com.order.order.product.domain;
 
 import com.order.order.common.domain.BaseTimeEntity;
+import com.order.order.common.domain.StringMapConverter;
 import com.order.order.member.domain.Member;
 import com.order.order.product.dto.ProductUpdateDTO;
 import jakarta.persistence.*;
@@ -9,6 +10,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Entity
 @Data
 @NoArgsConstructor
@@ -26,6 +29,24 @@ public class  Product extends BaseTimeEntity {
     private int stockQuantity;
     private String imagePath;
 
+    // 낙관적 락 (수정/재고 반영 시 버전이 다르면 충돌로 처리 후 재시도)
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
+
+    // 썸네일 등 이미지 파생본 (key : 파생본 이름, value : url)
+    @Convert(converter = StringMapConverter.class)
+    @Column(length = 2000)
+    private Map<String, String> imageVariants;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    private ImageStatus imageStatus = ImageStatus.NONE;
+
+    // 업로드 중인 이미지 파일명 (PENDING 동안만 값이 있음)
+    // 늦게 끝난 이전 업로드가 최신 이미지를 덮어쓰지 않도록, 업로드 완료 시 이 값과 같을 때만 반영
+    private String pendingImageName;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "member_id")
     private Member member;
@@ -34,10 +55,26 @@ public class  Product extends BaseTimeEntity {
         this.imagePath = imageUrl;
     }
 
+    public void updateImageVariants(Map<String, String> imageVariants) {
+        this.imageVariants = imageVariants;
+    }
+
+    public void updateImageStatus(ImageStatus imageStatus) {
+        this.imageStatus = imageStatus;
+    }
+
+    public void updatePendingImageName(String pendingImageName) {
+        this.pendingImageName = pendingImageName;
+    }
+
     public void updateStockQuantity(int productCount) {
         this.stockQuantity -= productCount;
     }
 
+    public void adjustStockQuantity(int delta) {
+        this.stockQuantity += delta;
+    }
+
     public void cancelOrder(int cancelQuantity) {
         this.stockQuantity += cancelQuantity;
     }
@@ -46,6 +83,5 @@ public class  Product extends BaseTimeEntity {
         this.category = productUpdateDTO.getCategory();
         this.name = productUpdateDTO.getName();
         this.price = productUpdateDTO.getPrice();
-        this.stockQuantity = productUpdateDTO.getStockQuantity();
     }
 }
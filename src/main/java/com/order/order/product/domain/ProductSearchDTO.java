@@ -12,4 +12,6 @@ import lombok.NoArgsConstructor;
 public class ProductSearchDTO {
     private String productName;
     private String category;
+    // keyset 페이징용 (이전 페이지의 마지막 상품 id, id DESC 정렬일 때 사용)
+    private Long lastId;
 }
@@ -0,0 +1,15 @@
+package com.order.order.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportErrorDTO {
+    private long line;
+    private String message;
+}
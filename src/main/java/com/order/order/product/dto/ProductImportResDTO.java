@@ -0,0 +1,22 @@
+package com.order.order.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportResDTO {
+    private long totalCount;
+    private long successCount;
+    private long failCount;
+    // 실패한 줄 목록 (최대 개수까지만 담음)
+    @Builder.Default
+    private List<ProductImportErrorDTO> errorList = new ArrayList<>();
+}
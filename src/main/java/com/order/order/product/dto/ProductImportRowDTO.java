@@ -0,0 +1,18 @@
+package com.order.order.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 대량 등록 파일(csv, ndjson)의 한 줄
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportRowDTO {
+    private String name;
+    private String category;
+    private Integer price;
+    private Integer stockQuantity;
+}
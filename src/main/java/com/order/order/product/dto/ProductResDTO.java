@@ -1,11 +1,14 @@
 package com.order.order.product.dto;
 
+import com.order.order.product.domain.ImageStatus;
 import com.order.order.product.domain.Product;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.Map;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -16,6 +19,10 @@ public class ProductResDTO {
     private String category;
     private int price;
     private int stockQuantity;
+    private String imagePath;
+    private ImageStatus imageStatus;
+    // 썸네일 등 이미지 파생본 url (key : 파생본 이름)
+    private Map<String, String> imageVariants;
 
     public static ProductResDTO fromEntity(Product product) {
         return ProductResDTO.builder()
@@ -23,6 +30,9 @@ public class ProductResDTO {
                 .name(product.getName())
                 .category(product.getCategory())
                 .price(product.getPrice())
-                .stockQuantity(product.getStockQuantity()).build();
+                .stockQuantity(product.getStockQuantity())
+                .imagePath(product.getImagePath())
+                .imageStatus(product.getImageStatus())
+                .imageVariants(product.getImageVariants()).build();
     }
 }
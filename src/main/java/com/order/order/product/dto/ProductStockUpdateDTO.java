@@ -0,0 +1,13 @@
+package com.order.order.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 관리자 재고 수정 (절대값이 아닌 증감량, 음수면 감소)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductStockUpdateDTO {
+    private int delta;
+}
@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.web.multipart.MultipartFile;
 
+// 재고는 증감량 API(PATCH /product/stock/{id}) 로만 변경 (절대값으로 덮어쓰면 처리된 주문 재고가 사라짐)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -15,6 +16,5 @@ public class ProductUpdateDTO {
     private String name;
     private String category;
     private int price;
-    private int stockQuantity;
     private MultipartFile productImage;
 }
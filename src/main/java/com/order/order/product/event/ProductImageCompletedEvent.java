@@ -0,0 +1,18 @@
+package com.order.order.product.event;
+
+import com.order.order.product.domain.ImageStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 이미지 업로드 처리 완료(성공/실패) 알림
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImageCompletedEvent {
+    private Long productId;
+    private String imageUrl;
+    private ImageStatus imageStatus;
+}
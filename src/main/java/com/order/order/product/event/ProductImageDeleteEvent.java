@@ -0,0 +1,16 @@
+package com.order.order.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// 상품 수정(commit) 이후 기존 이미지 삭제 요청
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImageDeleteEvent {
+    private String imageUrl;
+    private List<String> variantUrlList;
+}
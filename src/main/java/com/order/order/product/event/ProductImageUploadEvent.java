@@ -0,0 +1,28 @@
+package com.order.order.product.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// 상품 저장(commit) 이후 이미지 업로드 요청
+// 요청이 끝나면 MultipartFile 이 사라지기 때문에 임시 파일로 옮겨둔 경로를 전달
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImageUploadEvent {
+    private Long productId;
+    private Path tempFile;
+    // 업로드 파일명 (상품의 pendingImageName 과 같을 때만 반영, 다르면 더 최신 요청이 있으므로 폐기)
+    private String fileName;
+    private String contentType;
+    private long size;
+    // 업로드 성공 후 삭제할 기존 이미지 url (없으면 null)
+    private String oldImageUrl;
+    // 업로드 성공 후 삭제할 기존 파생본 url 목록
+    private List<String> oldVariantUrlList;
+}
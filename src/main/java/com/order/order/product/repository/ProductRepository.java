@@ -5,10 +5,59 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
     Page<Product> findAll(Specification<Product> specification, Pageable pageable);
+
+    long count(Specification<Product> specification);
+
+    // 파생본이 없는 기존 이미지 상품 (backfill 대상, id 순서로 keyset 조회)
+    @Query("select p from Product p where p.imagePath is not null and p.imageVariants is null and p.id > :lastId order by p.id")
+    List<Product> findImageBackfillTargets(@Param("lastId") Long lastId, Pageable pageable);
+
+    @Query("select p.id from Product p where p.category = :category")
+    List<Long> findIdsByCategory(@Param("category") String category);
+
+    // 재고 엔진(db) 용 재고 조회/변경
+    // 재고를 바꾸는 update 는 version 도 올려서, 엔티티로 상품을 수정하는 쪽(@Version)과 충돌을 감지하도록 함
+    @Query("select p.stockQuantity from Product p where p.id = :id")
+    Integer findStockQuantity(@Param("id") Long id);
+
+    @Query("select p.id, p.stockQuantity from Product p where p.id in :ids")
+    List<Object[]> findStockQuantities(@Param("ids") Collection<Long> ids);
+
+    // 재고 엔진 적재용 (id 순서로 keyset 조회)
+    @Query("select p.id, p.stockQuantity from Product p where p.id > :lastId order by p.id")
+    List<Object[]> findStockQuantitiesAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    // 재고 변경 후 전파용 (id, 카테고리, 재고)
+    @Query("select p.id, p.category, p.stockQuantity from Product p where p.id in :ids")
+    List<Object[]> findCategoryAndStockQuantities(@Param("ids") Collection<Long> ids);
+
+    // 재고가 충분할 때만 차감 (반영된 행 수가 0 이면 재고 부족 또는 없는 상품)
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity - :quantity, p.version = p.version + 1 where p.id = :id and p.stockQuantity >= :quantity")
+    int decreaseStockQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.stockQuantity = p.stockQuantity + :quantity, p.version = p.version + 1 where p.id = :id")
+    int increaseStockQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    // 값이 같으면 update 하지 않음 (상품 등록 직후 재고 세팅 등)
+    @Transactional
+    @Modifying
+    @Query("update Product p set p.stockQuantity = :quantity, p.version = p.version + 1 where p.id = :id and p.stockQuantity <> :quantity")
+    int updateStockQuantity(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,15 @@
+package com.order.order.product.repository;
+
+import com.order.order.product.domain.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ProductRepositoryCustom {
+
+    // count 쿼리 없이 다음 페이지 존재 여부만 확인하는 조회
+    Slice<Product> findSlice(Specification<Product> specification, Pageable pageable);
+
+    // 상품별 조건부 재고 차감을 jdbc batch 한 번으로 실행하고 상품별 반영된 행 수 응답 (0 이면 재고 부족 또는 없는 상품)
+    int[] decreaseStockQuantities(long[] productIds, int[] quantities);
+}
@@ -0,0 +1,76 @@
+package com.order.order.product.repository;
+
+import com.order.order.product.domain.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<Product> findSlice(Specification<Product> specification, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = criteriaBuilder.createQuery(Product.class);
+        Root<Product> root = query.from(Product.class);
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        // 페이지 크기보다 1건 더 조회해서 다음 페이지 존재 여부 판단 (count 쿼리 X)
+        List<Product> content = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = content.size() > pageable.getPageSize();
+        if (hasNext) {
+            content = content.subList(0, pageable.getPageSize());
+        }
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    // 재고가 충분할 때만 차감 (version 도 함께 올려서 엔티티로 수정하는 쪽의 @Version 충돌 감지 유지)
+    // 호출하는 쪽에서 상품 id 순서로 정렬해서 넘기면 여러 주문이 동시에 같은 상품들을 잡아도 lock 순서가 같아 deadlock 이 생기지 않음
+    // 상품별 반영 행 수가 필요하므로 MariaDB 접속 url 에 useBulkStmts=false 필요 (bulk 프로토콜은 행 수 대신 SUCCESS_NO_INFO 반환)
+    @Override
+    public int[] decreaseStockQuantities(long[] productIds, int[] quantities) {
+        String sql = "update product set stock_quantity = stock_quantity - ?, version = version + 1 where id = ? and stock_quantity >= ?";
+        int[] updatedRows = entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+                for (int i = 0; i < productIds.length; i++) {
+                    preparedStatement.setInt(1, quantities[i]);
+                    preparedStatement.setLong(2, productIds[i]);
+                    preparedStatement.setInt(3, quantities[i]);
+                    preparedStatement.addBatch();
+                }
+                return preparedStatement.executeBatch();
+            }
+        });
+        for (int updatedRow : updatedRows) {
+            // 드라이버가 batch 결과 행 수를 주지 않으면 성공 여부를 판단할 수 없으므로 실패 처리 (트랜잭션 rollback)
+            if (updatedRow == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("재고 차감 결과를 확인할 수 없습니다.");
+            }
+        }
+        return updatedRows;
+    }
+}
@@ -0,0 +1,41 @@
+package com.order.order.product.repository;
+
+import com.order.order.product.domain.Product;
+import com.order.order.product.domain.ProductSearchDTO;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 상품 검색 조건 조립
+// 목록 조회와 count 캐시 갱신에서 같은 조건을 사용하기 위해 분리
+public class ProductSpecification {
+
+    private ProductSpecification() {
+    }
+
+    public static Specification<Product> search(ProductSearchDTO productSearchDTO) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicateList = new ArrayList<>();
+            // name input값 존재 여부 확인
+            if (productSearchDTO.getProductName() != null) {
+                //  and name like '%productSearchDTO.getProductName%'
+                predicateList.add(criteriaBuilder.like(root.get("name"), "%" + productSearchDTO.getProductName() + "%"));
+            }
+            // category input값 존재 여부 확인
+            if (productSearchDTO.getCategory() != null) {
+                //  and category = "productSearchDTO.getCategory";
+                predicateList.add(criteriaBuilder.equal(root.get("category"), productSearchDTO.getCategory()));
+            }
+            // 이전 페이지 마지막 id 존재 여부 확인 (keyset 페이징)
+            if (productSearchDTO.getLastId() != null) {
+                //  and id < productSearchDTO.getLastId
+                predicateList.add(criteriaBuilder.lessThan(root.get("id"), productSearchDTO.getLastId()));
+            }
+
+            // 위의 검색 조건을 하나(한 줄)의 Predicate 객체로 만들어서 return
+            return criteriaBuilder.and(predicateList.toArray(new Predicate[0]));
+        };
+    }
+}
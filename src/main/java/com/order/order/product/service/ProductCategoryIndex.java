@@ -0,0 +1,223 @@
+package com.order.order.product.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.order.product.domain.Product;
+import com.order.order.product.dto.ProductResDTO;
+import com.order.order.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+// 카테고리별 상품 인덱스 (redis sorted set)
+// key : category:{카테고리명}, member : productId, score : productId (기본 정렬인 id DESC 순서)
+// 상품 본문은 product:{productId} 에 json 으로 캐싱하여 한 번의 MGET 으로 조회
+@Component
+@Slf4j
+public class ProductCategoryIndex {
+
+    private static final String CATEGORY_KEY = "category:";
+    private static final String PRODUCT_KEY = "product:";
+
+    // 인덱스가 아직 없는 카테고리에 추가하면 기존 상품이 빠진 인덱스가 만들어지므로, 이미 있는 인덱스에만 추가
+    // (없으면 첫 조회 시 db 에서 통째로 생성) 존재 확인과 ZADD 사이에 인덱스가 삭제되지 않도록 lua script 로 원자적으로 실행
+    private static final RedisScript<Long> ADD_IF_EXISTS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end "
+                    + "return redis.call('ZADD', KEYS[1], ARGV[1], ARGV[2])", Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ProductCategoryIndex(@Qualifier("productIndex") RedisTemplate<String, String> redisTemplate
+            , ProductRepository productRepository) {
+        this.redisTemplate = redisTemplate;
+        this.productRepository = productRepository;
+    }
+
+    // 상품 등록 시 인덱스에 추가 (트랜잭션이 commit 된 후 반영)
+    public void add(Product product) {
+        afterCommit(() -> write(product));
+    }
+
+    // 상품 수정 시 카테고리가 바뀌었으면 기존 인덱스에서 제거 후 추가
+    public void move(String oldCategory, Product product) {
+        afterCommit(() -> {
+            if (oldCategory != null && !oldCategory.equals(product.getCategory())) {
+                redisTemplate.opsForZSet().remove(CATEGORY_KEY + oldCategory, String.valueOf(product.getId()));
+            }
+            write(product);
+        });
+    }
+
+    // 대량 등록 시 인덱스 추가 (key : productId, value : 카테고리), 카테고리별 ZADD 를 pipeline 으로 전송
+    public void addAll(Map<Long, String> categoryMap) {
+        Map<String, List<Long>> idListMap = new HashMap<>();
+        for (Map.Entry<Long, String> entry : categoryMap.entrySet()) {
+            if (entry.getValue() != null) {
+                idListMap.computeIfAbsent(entry.getValue(), category -> new ArrayList<>()).add(entry.getKey());
+            }
+        }
+        // 인덱스가 아직 없는 카테고리는 첫 조회 시 db 에서 통째로 생성되므로 제외
+        idListMap.keySet().removeIf(category -> !Boolean.TRUE.equals(redisTemplate.hasKey(CATEGORY_KEY + category)));
+        if (idListMap.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<String, List<Long>> entry : idListMap.entrySet()) {
+                byte[] key = (CATEGORY_KEY + entry.getKey()).getBytes(StandardCharsets.UTF_8);
+                for (Long id : entry.getValue()) {
+                    connection.zSetCommands().zAdd(key, id, String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return null;
+        });
+    }
+
+    // 상품 본문 캐시 삭제 (다음 조회 시 db에서 다시 채움)
+    public void evict(Long productId) {
+        afterCommit(() -> redisTemplate.delete(PRODUCT_KEY + productId));
+    }
+
+    // 카테고리 내 전체 상품 수
+    public long count(String category) {
+        Long count = redisTemplate.opsForZSet().zCard(CATEGORY_KEY + category);
+        return count == null ? 0 : count;
+    }
+
+    // 카테고리 상품 목록 조회 (id DESC)
+    // lastId 가 있으면 keyset 방식(lastId 보다 작은 id 부터), 없으면 페이지 번호 기준으로 조회
+    public Slice<ProductResDTO> findSlice(String category, Long lastId, Pageable pageable) {
+        String key = CATEGORY_KEY + category;
+        if (Boolean.FALSE.equals(redisTemplate.hasKey(key))) {
+            rebuild(category);
+        }
+
+        int size = pageable.getPageSize();
+        Set<String> idSet;
+        if (lastId != null) {
+            idSet = redisTemplate.opsForZSet().reverseRangeByScore(key, Double.NEGATIVE_INFINITY, lastId - 1, 0, size + 1);
+        } else {
+            idSet = redisTemplate.opsForZSet().reverseRange(key, pageable.getOffset(), pageable.getOffset() + size);
+        }
+
+        List<Long> idList = new ArrayList<>();
+        if (idSet != null) {
+            for (String id : idSet) {
+                idList.add(Long.parseLong(id));
+            }
+        }
+        boolean hasNext = idList.size() > size;
+        if (hasNext) {
+            idList = idList.subList(0, size);
+        }
+        return new SliceImpl<>(hydrate(idList), pageable, hasNext);
+    }
+
+    // 상품 본문을 MGET 한 번으로 조회하고, 캐시에 없는 상품만 findAllById 로 한 번에 조회
+    private List<ProductResDTO> hydrate(List<Long> idList) {
+        if (idList.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<String> keyList = new ArrayList<>();
+        for (Long id : idList) {
+            keyList.add(PRODUCT_KEY + id);
+        }
+        List<String> valueList = redisTemplate.opsForValue().multiGet(keyList);
+
+        Map<Long, ProductResDTO> productMap = new HashMap<>();
+        List<Long> missingIdList = new ArrayList<>();
+        for (int i = 0; i < idList.size(); i++) {
+            String value = valueList == null ? null : valueList.get(i);
+            if (value == null) {
+                missingIdList.add(idList.get(i));
+                continue;
+            }
+            try {
+                productMap.put(idList.get(i), objectMapper.readValue(value, ProductResDTO.class));
+            } catch (JsonProcessingException e) {
+                missingIdList.add(idList.get(i));
+            }
+        }
+
+        if (!missingIdList.isEmpty()) {
+            Map<String, String> cacheMap = new HashMap<>();
+            for (Product product : productRepository.findAllById(missingIdList)) {
+                ProductResDTO productResDTO = ProductResDTO.fromEntity(product);
+                productMap.put(product.getId(), productResDTO);
+                try {
+                    cacheMap.put(PRODUCT_KEY + product.getId(), objectMapper.writeValueAsString(productResDTO));
+                } catch (JsonProcessingException e) {
+                    log.error(e.getMessage());
+                }
+            }
+            if (!cacheMap.isEmpty()) {
+                redisTemplate.opsForValue().multiSet(cacheMap);
+            }
+        }
+
+        // sorted set 의 순서대로 결과 조립 (그 사이 삭제된 상품은 제외)
+        List<ProductResDTO> productResDTOList = new ArrayList<>();
+        for (Long id : idList) {
+            ProductResDTO productResDTO = productMap.get(id);
+            if (productResDTO != null) {
+                productResDTOList.add(productResDTO);
+            }
+        }
+        return productResDTOList;
+    }
+
+    // 인덱스가 없는 카테고리(기존 상품, redis 초기화 등)는 db에서 id 목록을 읽어 다시 생성
+    private void rebuild(String category) {
+        List<Long> idList = productRepository.findIdsByCategory(category);
+        if (idList.isEmpty()) {
+            return;
+        }
+        Set<ZSetOperations.TypedTuple<String>> tupleSet = new HashSet<>();
+        for (Long id : idList) {
+            tupleSet.add(ZSetOperations.TypedTuple.of(String.valueOf(id), id.doubleValue()));
+        }
+        redisTemplate.opsForZSet().add(CATEGORY_KEY + category, tupleSet);
+    }
+
+    private void write(Product product) {
+        if (product.getCategory() != null) {
+            redisTemplate.execute(ADD_IF_EXISTS_SCRIPT, List.of(CATEGORY_KEY + product.getCategory())
+                    , String.valueOf(product.getId()), String.valueOf(product.getId()));
+        }
+        try {
+            redisTemplate.opsForValue().set(PRODUCT_KEY + product.getId()
+                    , objectMapper.writeValueAsString(ProductResDTO.fromEntity(product)));
+        } catch (JsonProcessingException e) {
+            log.error(e.getMessage());
+        }
+    }
+
+    // rollback 된 상품이 인덱스에 남지 않도록 commit 이후에 redis 반영
+    private void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.order.order.product.service;
+
+import com.order.order.product.domain.ProductSearchDTO;
+import com.order.order.product.repository.ProductRepository;
+import com.order.order.product.repository.ProductSpecification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// 검색 조건별 상품 전체 개수 캐시
+// 목록 조회마다 count(*) 쿼리를 날리지 않고, 캐시된 값을 응답하면서 유효 시간이 지나면 비동기로 갱신
+@Component
+@Slf4j
+public class ProductCountCache {
+
+    @Value("${product.count-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${product.count-cache.max-entries:1000}")
+    private int maxEntries;
+
+    private final ProductRepository productRepository;
+    private final AsyncTaskExecutor executor;
+
+    // key : 검색 조건(상품명 + 카테고리), value : 개수와 조회 시각
+    private final Map<String, CountEntry> countMap = new ConcurrentHashMap<>();
+
+    public ProductCountCache(ProductRepository productRepository
+            , @Qualifier("productCountExecutor") AsyncTaskExecutor executor) {
+        this.productRepository = productRepository;
+        this.executor = executor;
+    }
+
+    public long getCount(ProductSearchDTO productSearchDTO) {
+        // keyset 페이징 조건(lastId)은 전체 개수와 무관하므로 제외
+        ProductSearchDTO filter = copy(productSearchDTO);
+        String key = filterKey(filter);
+        CountEntry countEntry = countMap.get(key);
+
+        // 최초 조회는 값이 없으므로 동기로 count
+        if (countEntry == null) {
+            return load(key, filter);
+        }
+
+        // 유효 시간이 지났으면 기존 값을 응답하고 갱신은 비동기로 처리 (같은 조건에 대해 갱신은 한 번만)
+        if (countEntry.isExpired(ttlSeconds) && countEntry.refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        load(key, filter);
+                    } catch (Exception e) {
+                        countEntry.refreshing.set(false);
+                        log.error(e.getMessage());
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 갱신 작업이 밀려 거절된 경우 다음 조회 때 다시 요청
+                countEntry.refreshing.set(false);
+            }
+        }
+        return countEntry.count;
+    }
+
+    // 상품 등록 등으로 개수가 바뀐 경우 모든 캐시를 만료 처리 (값은 남겨두고 다음 조회 시 비동기 갱신)
+    public void expireAll() {
+        countMap.replaceAll((key, countEntry) -> new CountEntry(countEntry.count, 0L));
+    }
+
+    private long load(String key, ProductSearchDTO productSearchDTO) {
+        long count = productRepository.count(ProductSpecification.search(productSearchDTO));
+        // 검색어 조합이 무한히 쌓이지 않도록 최대 개수 초과 시 비움
+        if (countMap.size() >= maxEntries && !countMap.containsKey(key)) {
+            countMap.clear();
+        }
+        countMap.put(key, new CountEntry(count, System.currentTimeMillis()));
+        return count;
+    }
+
+    private String filterKey(ProductSearchDTO productSearchDTO) {
+        return productSearchDTO.getProductName() + "|" + productSearchDTO.getCategory();
+    }
+
+    private ProductSearchDTO copy(ProductSearchDTO productSearchDTO) {
+        return ProductSearchDTO.builder()
+                .productName(productSearchDTO.getProductName())
+                .category(productSearchDTO.getCategory())
+                .build();
+    }
+
+    private static class CountEntry {
+        private final long count;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+        private CountEntry(long count, long loadedAt) {
+            this.count = count;
+            this.loadedAt = loadedAt;
+        }
+
+        private boolean isExpired(long ttlSeconds) {
+            return System.currentTimeMillis() - loadedAt > ttlSeconds * 1000L;
+        }
+    }
+}
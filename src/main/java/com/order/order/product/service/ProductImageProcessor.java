@@ -0,0 +1,99 @@
+package com.order.order.product.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+// 상품 이미지 파생본(썸네일 등) 생성
+// 원본은 한 번만 decode 하고, 설정된 크기/포맷별로 resize + encode (CPU 작업이므로 코어 수 크기의 전용 스레드풀에서 처리)
+// 설정 형식 : 이름:가로크기:포맷 (예: thumb:200:jpg,medium:600:jpg)
+@Component
+@Slf4j
+public class ProductImageProcessor {
+
+    private final List<DerivativeSpec> specList = new ArrayList<>();
+    private final ThreadPoolTaskExecutor executor;
+
+    public ProductImageProcessor(@Value("${product.image.derivatives:thumb:200:jpg,medium:600:jpg}") String derivatives
+            , @Qualifier("imageProcessExecutor") ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+        for (String derivative : derivatives.split(",")) {
+            String[] values = derivative.trim().split(":");
+            specList.add(new DerivativeSpec(values[0], Integer.parseInt(values[1]), values[2]));
+        }
+    }
+
+    // 원본 이미지 파일로 파생본 생성 (이미지가 아니면 빈 목록)
+    public List<Derivative> process(Path original) {
+        try {
+            return executor.submit(() -> derive(original)).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("이미지 변환 중단");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("이미지 변환 실패 : " + e.getCause().getMessage());
+        }
+    }
+
+    private List<Derivative> derive(Path original) throws IOException {
+        List<Derivative> derivativeList = new ArrayList<>();
+        BufferedImage source = ImageIO.read(original.toFile());
+        if (source == null) {
+            // ImageIO 가 읽을 수 없는 형식(영상 등)은 파생본 없이 원본만 사용
+            return derivativeList;
+        }
+
+        for (DerivativeSpec spec : specList) {
+            // 원본보다 크게 늘리지는 않음
+            int width = Math.min(spec.getWidth(), source.getWidth());
+            int height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+
+            // jpg 는 투명도를 지원하지 않으므로 RGB 로 변환
+            boolean alpha = !spec.getFormat().equalsIgnoreCase("jpg") && !spec.getFormat().equalsIgnoreCase("jpeg");
+            BufferedImage resized = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = resized.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.drawImage(source, 0, 0, width, height, null);
+            graphics.dispose();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            if (!ImageIO.write(resized, spec.getFormat(), outputStream)) {
+                log.error("unsupported image format : {}", spec.getFormat());
+                continue;
+            }
+            derivativeList.add(new Derivative(spec.getName(), spec.getFormat(), outputStream.toByteArray()));
+        }
+        return derivativeList;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class DerivativeSpec {
+        private String name;
+        private int width;
+        private String format;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Derivative {
+        private String name;
+        private String format;
+        private byte[] bytes;
+    }
+}
@@ -0,0 +1,358 @@
+package com.order.order.product.service;
+
+import com.order.order.common.service.OptimisticLockRetry;
+import com.order.order.common.service.S3StorageService;
+import com.order.order.product.domain.ImageStatus;
+import com.order.order.product.domain.Product;
+import com.order.order.product.event.ProductImageCompletedEvent;
+import com.order.order.product.event.ProductImageDeleteEvent;
+import com.order.order.product.event.ProductImageUploadEvent;
+import com.order.order.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// 상품 이미지 처리 파이프라인
+// S3 I/O 동안 db 커넥션과 row lock 을 잡고 있지 않도록 상품은 PENDING 상태로 먼저 commit 하고,
+// commit 이후 별도 스레드풀에서 업로드 -> url 반영 -> 기존 이미지 삭제 순서로 처리 (실패 시 재시도)
+@Component
+@Slf4j
+public class ProductImageService {
+
+    @Value("${product.image.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${product.image.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+
+    @Value("${product.image.backfill-batch-size:100}")
+    private int backfillBatchSize;
+
+    private final S3StorageService s3StorageService;
+    private final ProductImageProcessor productImageProcessor;
+    private final ProductRepository productRepository;
+    private final ProductCategoryIndex productCategoryIndex;
+    private final ProductVersionService productVersionService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final AsyncTaskExecutor executor;
+    private final AsyncTaskExecutor backfillExecutor;
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+    public ProductImageService(S3StorageService s3StorageService
+            , ProductImageProcessor productImageProcessor
+            , ProductRepository productRepository
+            , ProductCategoryIndex productCategoryIndex
+            , ProductVersionService productVersionService
+            , OptimisticLockRetry optimisticLockRetry
+            , ApplicationEventPublisher applicationEventPublisher
+            , @Qualifier("productImageExecutor") AsyncTaskExecutor executor
+            , @Qualifier("productImageBackfillExecutor") AsyncTaskExecutor backfillExecutor) {
+        this.s3StorageService = s3StorageService;
+        this.productImageProcessor = productImageProcessor;
+        this.productRepository = productRepository;
+        this.productCategoryIndex = productCategoryIndex;
+        this.productVersionService = productVersionService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.executor = executor;
+        this.backfillExecutor = backfillExecutor;
+    }
+
+    // 요청이 끝나면 MultipartFile 은 삭제되므로 commit 전에 임시 파일로 복사해둠 (heap 에 올리지 않고 stream 복사)
+    // transferTo 는 원본 파일을 옮겨버려 재시도 시 다시 읽을 수 없으므로 InputStream 으로 복사
+    public Path spool(MultipartFile multipartFile) {
+        try (InputStream inputStream = multipartFile.getInputStream()) {
+            Path tempFile = Files.createTempFile("product-image-", ".tmp");
+            Files.copy(inputStream, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            return tempFile;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("이미지 업로드 실패");
+        }
+    }
+
+    // 업로드는 항상 이미지 스레드풀에서 실행 (afterCommit 콜백의 요청 스레드에서 S3 I/O 를 하지 않음)
+    // 스레드풀이 가득 차서 거절되면 업로드하지 않고 FAILED 로 표시 (이미지를 다시 등록하면 재시도)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUpload(ProductImageUploadEvent productImageUploadEvent) {
+        try {
+            executor.execute(() -> upload(productImageUploadEvent));
+        } catch (RejectedExecutionException e) {
+            log.warn("product image 대기열 초과, 업로드 실패 처리 productId = {}", productImageUploadEvent.getProductId());
+            try {
+                fail(productImageUploadEvent.getProductId(), productImageUploadEvent.getFileName());
+            } finally {
+                deleteTempFile(productImageUploadEvent.getTempFile());
+            }
+        }
+    }
+
+    // 상품 저장이 rollback 되면 업로드할 필요가 없으므로 임시 파일만 정리
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onUploadRollback(ProductImageUploadEvent productImageUploadEvent) {
+        deleteTempFile(productImageUploadEvent.getTempFile());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onDelete(ProductImageDeleteEvent productImageDeleteEvent) {
+        try {
+            executor.execute(() -> {
+                delete(productImageDeleteEvent.getImageUrl());
+                if (productImageDeleteEvent.getVariantUrlList() != null) {
+                    productImageDeleteEvent.getVariantUrlList().forEach(this::delete);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 기존 이미지 삭제 실패는 상품 정보에 영향이 없으므로 log 만 남김
+            log.error("product image delete rejected. imageUrl = {}", productImageDeleteEvent.getImageUrl());
+        }
+    }
+
+    // 파생본이 없는 기존 상품 이미지에 대해 파생본 생성 (한 번에 하나의 backfill 작업만 실행)
+    // 업로드 스레드풀을 오래 점유하거나 관리자 요청 스레드에서 실행되지 않도록 전용 스레드에서 실행
+    public boolean backfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            backfillExecutor.execute(() -> {
+                try {
+                    runBackfill();
+                } finally {
+                    backfillRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            backfillRunning.set(false);
+            throw e;
+        }
+        return true;
+    }
+
+    private void runBackfill() {
+        Long lastId = 0L;
+        int count = 0;
+        while (true) {
+            List<Product> productList = productRepository.findImageBackfillTargets(lastId, PageRequest.of(0, backfillBatchSize));
+            if (productList.isEmpty()) {
+                break;
+            }
+            for (Product product : productList) {
+                lastId = product.getId();
+                Path tempFile = null;
+                try {
+                    // 원본을 내려받아 파생본 생성 (원본은 그대로 둠)
+                    String fileName = s3StorageService.getFileName(product.getImagePath());
+                    tempFile = Files.createTempFile("product-image-", ".tmp");
+                    Path target = tempFile;
+                    retry(() -> {
+                        s3StorageService.download(fileName, target);
+                        return null;
+                    });
+                    Map<String, String> imageVariants = uploadDerivatives(fileName, tempFile);
+                    // 파생본 생성에 실패하면 반영하지 않고 다음 backfill 대상으로 남겨둠
+                    if (imageVariants == null) {
+                        continue;
+                    }
+                    // 그 사이 이미지가 바뀌었거나 새 업로드가 진행 중이면 이전 원본의 파생본이므로 반영하지 않고 삭제
+                    String imagePath = product.getImagePath();
+                    boolean applied = updateImageIf(product.getId(),
+                            current -> imagePath.equals(current.getImagePath())
+                                    && current.getPendingImageName() == null
+                                    && current.getImageVariants() == null,
+                            current -> current.updateImageVariants(imageVariants));
+                    if (applied) {
+                        count++;
+                    } else {
+                        imageVariants.values().forEach(this::delete);
+                    }
+                } catch (Exception e) {
+                    log.error("product image backfill failed. productId = {}, message = {}", product.getId(), e.getMessage());
+                } finally {
+                    if (tempFile != null) {
+                        deleteTempFile(tempFile);
+                    }
+                }
+            }
+        }
+        log.info("product image backfill finished. count = {}", count);
+    }
+
+    // 원본은 한 번만 decode 해서 파생본 생성 후 업로드, 파생본 이름별 url 반환
+    // 파생본 생성에 실패해도 원본 이미지는 그대로 사용할 수 있으므로 null 반환
+    // (빈 map 을 저장하면 backfill 대상에서 빠지므로, null 로 남겨 다음 backfill 때 다시 생성)
+    private Map<String, String> uploadDerivatives(String fileName, Path original) {
+        Map<String, String> imageVariants = new LinkedHashMap<>();
+        try {
+            String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf(".")) : fileName;
+            for (ProductImageProcessor.Derivative derivative : productImageProcessor.process(original)) {
+                String derivativeFileName = baseName + "-" + derivative.getName() + "." + derivative.getFormat();
+                String url = retry(() -> s3StorageService.upload(derivativeFileName
+                        , new ByteArrayInputStream(derivative.getBytes())
+                        , derivative.getBytes().length
+                        , "image/" + derivative.getFormat()));
+                imageVariants.put(derivative.getName(), url);
+            }
+        } catch (Exception e) {
+            log.error("product image derivative failed. fileName = {}, message = {}", fileName, e.getMessage());
+            return null;
+        }
+        return imageVariants;
+    }
+
+    private void upload(ProductImageUploadEvent productImageUploadEvent) {
+        Long productId = productImageUploadEvent.getProductId();
+        String fileName = productImageUploadEvent.getFileName();
+        try {
+            String imageUrl = retry(() -> {
+                try (InputStream inputStream = Files.newInputStream(productImageUploadEvent.getTempFile())) {
+                    return s3StorageService.upload(productImageUploadEvent.getFileName(), inputStream
+                            , productImageUploadEvent.getSize(), productImageUploadEvent.getContentType());
+                } catch (IOException e) {
+                    throw new IllegalArgumentException("이미지 업로드 실패");
+                }
+            });
+
+            // 썸네일 등 파생본 생성 후 원본 옆에 저장
+            Map<String, String> imageVariants = uploadDerivatives(productImageUploadEvent.getFileName(), productImageUploadEvent.getTempFile());
+
+            // 업로드된 url 을 별도의 짧은 트랜잭션으로 반영
+            // 업로드 중에 다른 이미지로 바뀌었거나 이미지가 삭제/상품이 삭제된 경우 반영하지 않고 방금 올린 이미지 삭제
+            // (기존 이미지는 더 최신 요청이 정리하므로 여기서 지우지 않음)
+            boolean applied = updateImageIf(productId,
+                    current -> fileName.equals(current.getPendingImageName()),
+                    current -> {
+                        current.updateImageUrl(imageUrl);
+                        // 파생본 생성 실패 시 null 로 반영 (기존 파생본을 지우고 backfill 대상으로 남김)
+                        current.updateImageVariants(imageVariants);
+                        current.updateImageStatus(ImageStatus.READY);
+                        current.updatePendingImageName(null);
+                    });
+            if (!applied) {
+                log.info("product image superseded, discard upload. productId = {}, fileName = {}", productId, fileName);
+                delete(imageUrl);
+                if (imageVariants != null) {
+                    imageVariants.values().forEach(this::delete);
+                }
+                return;
+            }
+
+            // 새 이미지 반영 후 기존 이미지/파생본 삭제 (url 이 같으면 방금 올린 이미지이므로 삭제하지 않음)
+            List<String> oldUrlList = new ArrayList<>();
+            if (productImageUploadEvent.getOldImageUrl() != null) {
+                oldUrlList.add(productImageUploadEvent.getOldImageUrl());
+            }
+            if (productImageUploadEvent.getOldVariantUrlList() != null) {
+                oldUrlList.addAll(productImageUploadEvent.getOldVariantUrlList());
+            }
+            for (String oldUrl : oldUrlList) {
+                if (!oldUrl.equals(imageUrl) && (imageVariants == null || !imageVariants.containsValue(oldUrl))) {
+                    delete(oldUrl);
+                }
+            }
+
+            applicationEventPublisher.publishEvent(ProductImageCompletedEvent.builder()
+                    .productId(productId)
+                    .imageUrl(imageUrl)
+                    .imageStatus(ImageStatus.READY).build());
+        } catch (Exception e) {
+            log.error("product image upload failed. productId = {}, message = {}", productId, e.getMessage());
+            fail(productId, fileName);
+        } finally {
+            deleteTempFile(productImageUploadEvent.getTempFile());
+        }
+    }
+
+    private void delete(String imageUrl) {
+        try {
+            retry(() -> {
+                s3StorageService.delete(s3StorageService.getFileName(imageUrl));
+                return null;
+            });
+        } catch (Exception e) {
+            // 기존 이미지 삭제 실패는 상품 정보에 영향이 없으므로 log 만 남김
+            log.error("product image delete failed. imageUrl = {}, message = {}", imageUrl, e.getMessage());
+        }
+    }
+
+    // 이 업로드를 아직 기다리고 있는 경우에만 FAILED 로 표시 (더 최신 업로드의 상태를 덮어쓰지 않음)
+    private void fail(Long productId, String fileName) {
+        boolean applied = updateImageIf(productId,
+                current -> fileName.equals(current.getPendingImageName()),
+                current -> {
+                    current.updateImageStatus(ImageStatus.FAILED);
+                    current.updatePendingImageName(null);
+                });
+        if (!applied) {
+            return;
+        }
+        applicationEventPublisher.publishEvent(ProductImageCompletedEvent.builder()
+                .productId(productId)
+                .imageStatus(ImageStatus.FAILED).build());
+    }
+
+    // 상품이 아직 condition 을 만족할 때만 이미지 정보 반영 (반영 여부 반환)
+    // 비동기 작업이 끝나기 전에 상품이 수정되었을 수 있으므로 반영 직전에 다시 조회해서 확인
+    private boolean updateImageIf(Long productId, Predicate<Product> condition, Consumer<Product> change) {
+        // 재고 반영(rabbitmq 소비)과 동시에 수정되면 @Version 충돌 -> 트랜잭션 단위로 재시도 (재시도 때도 다시 확인)
+        // afterCommit 콜백에서 호출되어도 반영되도록 항상 새 트랜잭션으로 실행
+        return optimisticLockRetry.executeInNewTransaction("product-image", () -> {
+            Product product = productRepository.findById(productId).orElse(null);
+            if (product == null || !condition.test(product)) {
+                return false;
+            }
+            change.accept(product);
+            productCategoryIndex.evict(productId);
+            productVersionService.touch(productId, product.getCategory());
+            return true;
+        });
+    }
+
+    // 일시적인 S3 장애를 고려해 지수적으로 대기 시간을 늘리며 재시도
+    private <T> T retry(Supplier<T> supplier) throws InterruptedException {
+        RuntimeException lastException = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return supplier.get();
+            } catch (RuntimeException e) {
+                lastException = e;
+                log.warn("product image attempt {} failed : {}", attempt, e.getMessage());
+                if (attempt < maxAttempts) {
+                    Thread.sleep(retryBackoffMs * (1L << (attempt - 1)));
+                }
+            }
+        }
+        throw lastException;
+    }
+
+    private void deleteTempFile(Path tempFile) {
+        try {
+            Files.deleteIfExists(tempFile);
+        } catch (IOException e) {
+            log.error(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.order.order.product.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.order.common.service.StockInventoryService;
+import com.order.order.member.domain.Member;
+import com.order.order.member.repository.MemberRepository;
+import com.order.order.product.domain.ImageStatus;
+import com.order.order.product.dto.ProductImportErrorDTO;
+import com.order.order.product.dto.ProductImportResDTO;
+import com.order.order.product.dto.ProductImportRowDTO;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// 상품 대량 등록
+// 요청 body(csv 또는 ndjson)를 한 줄씩 읽으면서 설정된 크기만큼 모아 jdbc batch insert (청크 단위 트랜잭션)
+// 청크마다 redis 재고는 pipeline 으로 한 번에 세팅, 잘못된 줄은 에러 목록에 담고 나머지는 계속 진행
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final String INSERT_SQL = "insert into product (name, category, price, stock_quantity, image_status, member_id, created_time, updated_time) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${product.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${product.import.max-errors:1000}")
+    private int maxErrors;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MemberRepository memberRepository;
+    private final StockInventoryService stockInventoryService;
+    private final ProductCategoryIndex productCategoryIndex;
+    private final ProductCountCache productCountCache;
+    private final ProductVersionService productVersionService;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public ProductImportService(JdbcTemplate jdbcTemplate
+            , TransactionTemplate transactionTemplate
+            , MemberRepository memberRepository
+            , StockInventoryService stockInventoryService
+            , ProductCategoryIndex productCategoryIndex
+            , ProductCountCache productCountCache
+            , ProductVersionService productVersionService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.memberRepository = memberRepository;
+        this.stockInventoryService = stockInventoryService;
+        this.productCategoryIndex = productCategoryIndex;
+        this.productCountCache = productCountCache;
+        this.productVersionService = productVersionService;
+    }
+
+    public ProductImportResDTO importProducts(InputStream inputStream, boolean csv) throws IOException {
+        String email = SecurityContextHolder.getContext().getAuthentication().getName();
+        Member member = memberRepository.findByEmail(email).orElseThrow(() -> new EntityNotFoundException("권한 없음"));
+
+        ProductImportResDTO productImportResDTO = ProductImportResDTO.builder().build();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String[] header = null;
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                // csv 의 첫 줄은 컬럼명 (name,category,price,stockQuantity 순서 자유)
+                if (csv && header == null) {
+                    header = parseCsvLine(line).toArray(new String[0]);
+                    continue;
+                }
+
+                productImportResDTO.setTotalCount(productImportResDTO.getTotalCount() + 1);
+                try {
+                    ProductImportRowDTO row = csv ? toRow(header, parseCsvLine(line)) : objectMapper.readValue(line, ProductImportRowDTO.class);
+                    validate(row);
+                    chunk.add(new ImportRow(lineNumber, row));
+                } catch (Exception e) {
+                    addError(productImportResDTO, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, member.getId(), productImportResDTO);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flush(chunk, member.getId(), productImportResDTO);
+        }
+
+        productCountCache.expireAll();
+        return productImportResDTO;
+    }
+
+    // 청크 단위 저장
+    // batch 가 실패하면 어떤 줄이 문제인지 알 수 있도록 한 줄씩 다시 저장
+    private void flush(List<ImportRow> chunk, Long memberId, ProductImportResDTO productImportResDTO) {
+        List<ImportRow> savedList;
+        try {
+            savedList = insert(chunk, memberId);
+        } catch (Exception e) {
+            log.warn("product import batch failed, retry one by one : {}", e.getMessage());
+            savedList = new ArrayList<>();
+            for (ImportRow importRow : chunk) {
+                try {
+                    savedList.addAll(insert(List.of(importRow), memberId));
+                } catch (Exception rowException) {
+                    addError(productImportResDTO, importRow.getLineNumber(), rowException.getMessage());
+                }
+            }
+        }
+        productImportResDTO.setSuccessCount(productImportResDTO.getSuccessCount() + savedList.size());
+
+        // redis 재고/카테고리 인덱스는 청크 단위 pipeline 으로 반영
+        Map<Long, Integer> stockMap = new HashMap<>();
+        Map<Long, String> categoryMap = new HashMap<>();
+        for (ImportRow importRow : savedList) {
+            stockMap.put(importRow.getProductId(), importRow.getRow().getStockQuantity());
+            categoryMap.put(importRow.getProductId(), importRow.getRow().getCategory());
+        }
+        stockInventoryService.makeStockQuantities(stockMap);
+        productCategoryIndex.addAll(categoryMap);
+        productVersionService.touch(null, new HashSet<>(categoryMap.values()).toArray(new String[0]));
+    }
+
+    private List<ImportRow> insert(List<ImportRow> rowList, Long memberId) {
+        return transactionTemplate.execute(status -> {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)
+                    , new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ProductImportRowDTO row = rowList.get(i).getRow();
+                            ps.setString(1, row.getName());
+                            ps.setString(2, row.getCategory());
+                            ps.setInt(3, row.getPrice());
+                            ps.setInt(4, row.getStockQuantity());
+                            ps.setString(5, ImageStatus.NONE.name());
+                            ps.setLong(6, memberId);
+                            ps.setTimestamp(7, now);
+                            ps.setTimestamp(8, now);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return rowList.size();
+                        }
+                    }, keyHolder);
+
+            List<Map<String, Object>> keyList = keyHolder.getKeyList();
+            for (int i = 0; i < rowList.size(); i++) {
+                Number key = (Number) keyList.get(i).values().iterator().next();
+                rowList.get(i).setProductId(key.longValue());
+            }
+            return rowList;
+        });
+    }
+
+    private void validate(ProductImportRowDTO row) {
+        if (row.getName() == null || row.getName().isBlank()) {
+            throw new IllegalArgumentException("상품명이 없습니다.");
+        }
+        if (row.getPrice() == null || row.getPrice() < 0) {
+            throw new IllegalArgumentException("가격이 올바르지 않습니다.");
+        }
+        if (row.getStockQuantity() == null || row.getStockQuantity() < 0) {
+            throw new IllegalArgumentException("재고 수량이 올바르지 않습니다.");
+        }
+    }
+
+    private ProductImportRowDTO toRow(String[] header, List<String> valueList) {
+        if (header == null || valueList.size() != header.length) {
+            throw new IllegalArgumentException("컬럼 수가 맞지 않습니다.");
+        }
+        ProductImportRowDTO row = new ProductImportRowDTO();
+        for (int i = 0; i < header.length; i++) {
+            String value = valueList.get(i).trim();
+            switch (header[i].trim()) {
+                case "name" -> row.setName(value);
+                case "category" -> row.setCategory(value.isEmpty() ? null : value);
+                case "price" -> row.setPrice(Integer.parseInt(value));
+                case "stockQuantity" -> row.setStockQuantity(Integer.parseInt(value));
+                default -> {
+                }
+            }
+        }
+        return row;
+    }
+
+    // 큰따옴표로 감싼 값(쉼표 포함 가능, "" 는 따옴표 하나)을 지원하는 csv 한 줄 파싱
+    private List<String> parseCsvLine(String line) {
+        List<String> valueList = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                valueList.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        valueList.add(value.toString());
+        return valueList;
+    }
+
+    private void addError(ProductImportResDTO productImportResDTO, long lineNumber, String message) {
+        productImportResDTO.setFailCount(productImportResDTO.getFailCount() + 1);
+        if (productImportResDTO.getErrorList().size() < maxErrors) {
+            productImportResDTO.getErrorList().add(new ProductImportErrorDTO(lineNumber, message));
+        }
+    }
+
+    // 파일의 한 줄 (오류 응답용 줄 번호, 저장 후 생성된 상품 id)
+    @Getter
+    @RequiredArgsConstructor
+    private static class ImportRow {
+        private final long lineNumber;
+        private final ProductImportRowDTO row;
+        @Setter
+        private Long productId;
+    }
+}
@@ -1,48 +1,83 @@
 package com.order.order.product.service;
 
+import com.order.order.common.service.OptimisticLockRetry;
+import com.order.order.common.service.ProductStockStreamService;
 import com.order.order.common.service.StockInventoryService;
 import com.order.order.member.domain.Member;
 import com.order.order.member.repository.MemberRepository;
+import com.order.order.product.domain.ImageStatus;
 import com.order.order.product.domain.Product;
 import com.order.order.product.domain.ProductSearchDTO;
 import com.order.order.product.dto.ProductCreateDTO;
 import com.order.order.product.dto.ProductResDTO;
+import com.order.order.product.dto.ProductStockUpdateDTO;
 import com.order.order.product.dto.ProductUpdateDTO;
+import com.order.order.product.event.ProductImageDeleteEvent;
+import com.order.order.product.event.ProductImageUploadEvent;
 import com.order.order.product.repository.ProductRepository;
+import com.order.order.product.repository.ProductSpecification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
-import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
-import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.data.domain.Pageable;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Transactional
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class ProductService {
 
-    @Value("${cloud.aws.s3.bucket}")
-    private String bucket;
-
     private final ProductRepository productRepository;
     private final MemberRepository memberRepository;
-    private final S3Client s3Client;
+    private final ProductImageService productImageService;
+    private final ApplicationEventPublisher applicationEventPublisher;
     private final StockInventoryService stockInventoryService;
+    private final ProductCountCache productCountCache;
+    private final ProductCategoryIndex productCategoryIndex;
+    private final ProductVersionService productVersionService;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ProductStockStreamService productStockStreamService;
+    // 조회마다 meter 를 다시 조회하지 않도록 source 별 timer 를 생성 시점에 등록
+    private final Map<String, Timer> loadTimerMap = new HashMap<>();
+
+    public ProductService(ProductRepository productRepository, MemberRepository memberRepository
+            , ProductImageService productImageService, ApplicationEventPublisher applicationEventPublisher
+            , StockInventoryService stockInventoryService, ProductCountCache productCountCache
+            , ProductCategoryIndex productCategoryIndex, ProductVersionService productVersionService
+            , OptimisticLockRetry optimisticLockRetry, ProductStockStreamService productStockStreamService
+            , MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.memberRepository = memberRepository;
+        this.productImageService = productImageService;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.stockInventoryService = stockInventoryService;
+        this.productCountCache = productCountCache;
+        this.productCategoryIndex = productCategoryIndex;
+        this.productVersionService = productVersionService;
+        this.optimisticLockRetry = optimisticLockRetry;
+        this.productStockStreamService = productStockStreamService;
+        for (String source : List.of("index", "db", "detail")) {
+            loadTimerMap.put(source, Timer.builder("product.load").tag("source", source).register(meterRegistry));
+        }
+    }
 
     // 상품 등록
     public Long save(ProductCreateDTO productCreateDTO) {
@@ -52,34 +87,30 @@ public class ProductService {
 
         if (productCreateDTO.getProductImage() != null) {
             // 이미지 파일명 설정
-            String fileName = "product-" + product.getId() + "-profileImage-" + productCreateDTO.getProductImage().getOriginalFilename();
-
-            // 저장 객체 구성
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(fileName)
-                    .contentType(productCreateDTO.getProductImage().getContentType())         // jpeg, mp4, ...
-                    .build();
-
-            // 이미지 업로드 (byte 형태로 업로드)
-            try {
-                s3Client.putObject(putObjectRequest, RequestBody.fromBytes(productCreateDTO.getProductImage().getBytes()));
-            } catch (Exception e) {
-                // checked 를 unchecked로 바꿔 전체 rollback 되도록 예외 처리
-                throw new IllegalArgumentException("이미지 업로드 실패");
-            }
-
-            // 이미지 삭제
-//            s3Client.deleteObject(a -> a.bucket(bucket).key(fileName));
+            String fileName = imageFileName(product.getId(), productCreateDTO.getProductImage());
 
-            // S3에서 이미지 url 추출
-            String imgUrl = s3Client.utilities().getUrl(a -> a.bucket(bucket).key(fileName)).toExternalForm();
-            product.updateImageUrl(imgUrl);
+            // 이미지 업로드는 commit 이후 별도 스레드에서 처리 (S3 I/O 동안 db 커넥션을 잡고 있지 않도록)
+            product.updateImageStatus(ImageStatus.PENDING);
+            product.updatePendingImageName(fileName);
+            applicationEventPublisher.publishEvent(ProductImageUploadEvent.builder()
+                    .productId(product.getId())
+                    .tempFile(productImageService.spool(productCreateDTO.getProductImage()))
+                    .fileName(fileName)
+                    .contentType(productCreateDTO.getProductImage().getContentType())
+                    .size(productCreateDTO.getProductImage().getSize())
+                    .build());
         }
 
         // 상품 등록 시 redis에 재고 세팅
         stockInventoryService.makeStockQuantity(product.getId(), product.getStockQuantity());
 
+        // 상품 개수가 바뀌었으므로 목록 count 캐시 만료
+        productCountCache.expireAll();
+
+        // 카테고리 인덱스에 추가
+        productCategoryIndex.add(product);
+        productVersionService.touch(product.getId(), product.getCategory());
+
         return product.getId();
     }
 
@@ -88,86 +119,191 @@ public class ProductService {
         return productRepository.findAll().stream().map(ProductResDTO::fromEntity).collect(Collectors.toList());
     }
 
+    // 목록 조회 (전체 개수 포함)
+    // 전체 개수는 매번 count(*) 하지 않고 검색 조건별 캐시 값 사용
     public Page<ProductResDTO> findAll(Pageable pageable, ProductSearchDTO productSearchDTO) {
-        Specification<Product> specification = new Specification<Product>() {
-            @Override
-            public Predicate toPredicate(Root<Product> root, CriteriaQuery<?> query, CriteriaBuilder criteriaBuilder) {
-                List<Predicate> predicateList = new ArrayList<>();
-                // name input값 존재 여부 확인
-                if (productSearchDTO.getProductName() != null) {
-                    //  and title like '%postSearchDTO.getTitle%'
-                    predicateList.add(criteriaBuilder.like(root.get("name"), "%" + productSearchDTO.getProductName() + "%"));
-                }
-                // category input값 존재 여부 확인
-                if (productSearchDTO.getCategory() != null) {
-                    //  and category = "postSearchDTO.getCategory";
-                    predicateList.add(criteriaBuilder.equal(root.get("category"), productSearchDTO.getCategory()));
-                }
-                Predicate[] predicateArr = new Predicate[predicateList.size()];
-                for (int i = 0; i < predicateList.size(); i++) {
-                    predicateArr[i] = predicateList.get(i);
-                }
+        Slice<ProductResDTO> productSlice = findSlice(pageable, productSearchDTO);
 
-                // 위의 검색 조건을 하나(한 줄)의 Predicate 객체로 만들어서 return
-                Predicate predicate = criteriaBuilder.and(predicateArr);
+        // 카테고리 인덱스로 조회한 경우 전체 개수도 redis(ZCARD)에서 바로 확인
+        if (isCategoryBrowse(pageable, productSearchDTO)) {
+            return new PageImpl<>(productSlice.getContent(), pageable, productCategoryIndex.count(productSearchDTO.getCategory()));
+        }
 
-                return predicate;
+        long total;
+        if (productSlice.getNumberOfElements() == 0 && pageable.getOffset() > 0) {
+            // 마지막 페이지를 넘어선 빈 페이지면 offset 으로는 개수를 알 수 없으므로 캐시 값 사용
+            total = productCountCache.getCount(productSearchDTO);
+        } else if (!productSlice.hasNext()) {
+            // 마지막 페이지면 정확한 개수를 바로 알 수 있음
+            total = pageable.getOffset() + productSlice.getNumberOfElements();
+        } else {
+            // 캐시 값이 오래되어 실제보다 작더라도 다음 페이지가 있다는 사실과는 어긋나지 않도록 보정
+            total = Math.max(productCountCache.getCount(productSearchDTO)
+                    , pageable.getOffset() + productSlice.getNumberOfElements() + 1);
+        }
+        return new PageImpl<>(productSlice.getContent(), pageable, total);
+    }
+
+    // 목록 조회 (count 쿼리 없이 다음 페이지 존재 여부만) - 무한 스크롤용
+    public Slice<ProductResDTO> findSlice(Pageable pageable, ProductSearchDTO productSearchDTO) {
+        Slice<ProductResDTO> productSlice;
+        // 카테고리만으로 기본 정렬(id DESC) 조회 시 db 대신 redis 카테고리 인덱스 사용
+        if (isCategoryBrowse(pageable, productSearchDTO)) {
+            productSlice = loadTimer("index").record(() ->
+                    productCategoryIndex.findSlice(productSearchDTO.getCategory(), productSearchDTO.getLastId(), pageable));
+        } else {
+            productSlice = loadTimer("db").record(() ->
+                    productRepository.findSlice(ProductSpecification.search(productSearchDTO), pageable)
+                    .map(ProductResDTO::fromEntity));
+        }
+        overlayStock(productSlice.getContent());
+        return productSlice;
+    }
+
+    // db 의 재고는 rabbitmq 소비가 끝나야 반영되므로, 응답에는 redis 의 실시간 재고를 덮어씀
+    // 페이지 내 상품 재고는 MGET 한 번으로 조회하고, redis 에 없는 상품은 db 값 그대로 사용
+    private void overlayStock(List<ProductResDTO> productResDTOList) {
+        List<Long> productIdList = new ArrayList<>();
+        for (ProductResDTO productResDTO : productResDTOList) {
+            productIdList.add(productResDTO.getId());
+        }
+        Map<Long, Integer> stockMap = stockInventoryService.getStockQuantities(productIdList);
+        for (ProductResDTO productResDTO : productResDTOList) {
+            Integer stockQuantity = stockMap.get(productResDTO.getId());
+            if (stockQuantity != null) {
+                productResDTO.setStockQuantity(stockQuantity);
             }
-        };
+        }
+    }
 
-//        Page<Product> productPage = productRepository.findAll(specification, pageable);
-//        return productPage.map(ProductResDTO::fromEntity);
-        return productRepository.findAll(specification, pageable).map(ProductResDTO::fromEntity);
+    // 상품 조회 소요 시간 (조회 경로별)
+    private Timer loadTimer(String source) {
+        return loadTimerMap.get(source);
+    }
 
+    private boolean isCategoryBrowse(Pageable pageable, ProductSearchDTO productSearchDTO) {
+        return productSearchDTO.getCategory() != null
+                && productSearchDTO.getProductName() == null
+                && pageable.getSort().equals(Sort.by(Sort.Direction.DESC, "id"));
     }
 
     // 상품 상세 조회
     public ProductResDTO findById(Long id) {
-        Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("존재하지 않는 회원입니다"));
-        return ProductResDTO.fromEntity(product);
+        Product product = loadTimer("detail").record(() -> productRepository.findById(id))
+                .orElseThrow(() -> new EntityNotFoundException("존재하지 않는 회원입니다"));
+        ProductResDTO productResDTO = ProductResDTO.fromEntity(product);
+        // redis 의 실시간 재고 반영 (없으면 db 값 그대로)
+        Integer stockQuantity = stockInventoryService.getStockQuantity(id);
+        if (stockQuantity != null) {
+            productResDTO.setStockQuantity(stockQuantity);
+        }
+        return productResDTO;
     }
     
     // 상품 정보 수정
+    // 재고 반영(rabbitmq 소비)과 동시에 수정되면 @Version 충돌 -> 트랜잭션 단위로 재시도
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Long update(Long id, ProductUpdateDTO productUpdateDTO) {
+        return optimisticLockRetry.execute("product-update", () -> doUpdate(id, productUpdateDTO));
+    }
+
+    // 관리자 재고 수정 (증감량 기준)
+    // 절대값으로 덮어쓰면 그 사이 처리된 주문 재고가 사라지므로 증감량만 반영
+    // db 재고는 rabbitmq 소비가 끝나야 반영되어 실제 판매 재고보다 늦으므로,
+    // 판매에 쓰이는 재고 엔진에 먼저 조건부로 반영(감소는 남은 재고가 충분할 때만)하고 그 결과를 db 에 맞춰 반영
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int adjustStock(Long id, ProductStockUpdateDTO productStockUpdateDTO) {
+        int delta = productStockUpdateDTO.getDelta();
         Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("없는 상품입니다."));
-        product.updateDTO(productUpdateDTO);
 
-        // 이미지 업데이트 전에 일단 비워두고 시작
-        // 기존 이미지 삭제
-        if (product.getImagePath() != null) {
-            String imgUrl = product.getImagePath();
-            String fileName = imgUrl.substring(imgUrl.lastIndexOf("/") + 1);
-            s3Client.deleteObject(a -> a.bucket(bucket).key(fileName));
+        int newQuantity = delta < 0 ? stockInventoryService.decreaseStockQuantity(id, -delta)
+                : stockInventoryService.increaseStockQuantity(id, delta);
+        if (newQuantity < 0) {
+            if (stockInventoryService.getStockQuantity(id) == null) {
+                throw new IllegalArgumentException("재고 정보가 없는 상품입니다.");
+            }
+            throw new IllegalArgumentException("재고가 부족합니다.");
         }
 
-        // 이미지 업데이트
-        if (productUpdateDTO.getProductImage() != null && !productUpdateDTO.getProductImage().isEmpty()) {
-            String newFileName = "product-" + product.getId() + "-profileImage-" + productUpdateDTO.getProductImage().getOriginalFilename();
+        // 재고 엔진이 db 이면 위에서 이미 반영됨
+        // 아니면 db 에도 같은 증감량 반영 (판매 재고 기준으로 이미 검증했으므로 조건 없이 update 한 문장으로 반영, @Version 충돌 X)
+        if (!stockInventoryService.isDatabaseEngine()) {
+            try {
+                productRepository.increaseStockQuantity(id, delta);
+            } catch (RuntimeException e) {
+                // db 반영에 실패하면 재고 엔진에 반영한 증감량을 되돌려 두 저장소가 어긋나지 않도록 함
+                int restored = delta < 0 ? stockInventoryService.increaseStockQuantity(id, -delta)
+                        : stockInventoryService.decreaseStockQuantity(id, delta);
+                if (restored < 0) {
+                    log.error("재고 증감량 복구 실패 productId = {}, delta = {}", id, delta);
+                }
+                throw e;
+            }
+        }
 
-            // 신규 이미지 저장 객체 구성
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(bucket)
-                    .key(newFileName)
-                    .contentType(productUpdateDTO.getProductImage().getContentType())         // jpeg, mp4, ...
-                    .build();
+        productCategoryIndex.evict(id);
+        productVersionService.touch(id, product.getCategory());
+        productStockStreamService.onStockChanged(id, newQuantity);
+        return newQuantity;
+    }
 
+    private Long doUpdate(Long id, ProductUpdateDTO productUpdateDTO) {
+        Product product = productRepository.findById(id).orElseThrow(() -> new EntityNotFoundException("없는 상품입니다."));
+        String oldCategory = product.getCategory();
+        product.updateDTO(productUpdateDTO);
 
-            // 이미지 업로드 (byte 형태로 업로드)
-            try {
-                s3Client.putObject(putObjectRequest, RequestBody.fromBytes(productUpdateDTO.getProductImage().getBytes()));
-            } catch (Exception e) {
-                // checked 를 unchecked로 바꿔 전체 rollback 되도록 예외 처리
-                throw new IllegalArgumentException("이미지 업로드 실패");
-            }
+        // 이미지 업데이트
+        // S3 업로드/삭제는 commit 이후 별도 스레드에서 처리 (기존 이미지는 새 이미지 반영 후 삭제)
+        if (productUpdateDTO.getProductImage() != null && !productUpdateDTO.getProductImage().isEmpty()) {
+            String newFileName = imageFileName(product.getId(), productUpdateDTO.getProductImage());
 
-            // S3에서 이미지 url 추출
-            String newImgUrl = s3Client.utilities().getUrl(a -> a.bucket(bucket).key(newFileName)).toExternalForm();
-            product.updateImageUrl(newImgUrl);
+            // 이전 업로드가 아직 진행 중이어도 이 파일명의 업로드만 반영됨 (이전 업로드 결과는 반영하지 않고 삭제)
+            product.updateImageStatus(ImageStatus.PENDING);
+            product.updatePendingImageName(newFileName);
+            applicationEventPublisher.publishEvent(ProductImageUploadEvent.builder()
+                    .productId(product.getId())
+                    .tempFile(productImageService.spool(productUpdateDTO.getProductImage()))
+                    .fileName(newFileName)
+                    .contentType(productUpdateDTO.getProductImage().getContentType())
+                    .size(productUpdateDTO.getProductImage().getSize())
+                    .oldImageUrl(product.getImagePath())
+                    .oldVariantUrlList(variantUrlList(product))
+                    .build());
         } else {
+            // 새 이미지가 없으면 기존 이미지 삭제
+            if (product.getImagePath() != null) {
+                applicationEventPublisher.publishEvent(new ProductImageDeleteEvent(product.getImagePath(), variantUrlList(product)));
+            }
             product.updateImageUrl(null);
+            product.updateImageVariants(null);
+            product.updateImageStatus(ImageStatus.NONE);
+            // 진행 중인 업로드가 있으면 완료되어도 반영하지 않음
+            product.updatePendingImageName(null);
         }
 
+        // 카테고리 인덱스 및 상품 본문 캐시 갱신
+        productCategoryIndex.move(oldCategory, product);
+        productCountCache.expireAll();
+        productVersionService.touch(product.getId(), oldCategory, product.getCategory());
+
         return product.getId();
 
     }
+
+    // 이미지 파생본 backfill (파생본이 없는 기존 상품 대상, 비동기 실행)
+    public boolean backfillImageVariants() {
+        return productImageService.backfill();
+    }
+
+    // 같은 이름의 파일을 다시 올려도 이전 업로드와 구분되도록 업로드마다 고유한 파일명 사용
+    private String imageFileName(Long productId, MultipartFile productImage) {
+        return "product-" + productId + "-profileImage-" + UUID.randomUUID() + "-" + productImage.getOriginalFilename();
+    }
+
+    private List<String> variantUrlList(Product product) {
+        if (product.getImageVariants() == null) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(product.getImageVariants().values());
+    }
 }
@@ -0,0 +1,134 @@
+package com.order.order.product.service;
+
+import com.order.order.common.service.StockInventoryService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// 상품/카테고리별 마지막 변경 시각(ms) 관리 - 조건부 GET(ETag, Last-Modified) 판단용
+// 엔티티를 조회하지 않고 redis 값 하나로 304 응답 여부를 결정
+// 서버마다 시계가 다르면 나중 변경이 더 작은 값을 쓸 수 있으므로, 시각은 redis 서버 시계(TIME)로 정하고 항상 이전 값보다 크게 갱신
+@Component
+public class ProductVersionService {
+
+    private static final String PRODUCT_VERSION_KEY = "version:product:";
+    private static final String CATEGORY_VERSION_KEY = "version:category:";
+    private static final String ALL_VERSION_KEY = "version:all";
+
+    // 모든 key 를 max(현재 값 + 1, redis 현재 시각) 으로 갱신 (만료 시간 제거)
+    private static final RedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>(
+            "local time = redis.call('TIME') "
+                    + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+                    + "for _, key in ipairs(KEYS) do "
+                    + "local version = math.max(tonumber(redis.call('GET', key) or '0') + 1, now) "
+                    + "redis.call('SET', key, string.format('%d', version)) "
+                    + "end "
+                    + "return now", Long.class);
+
+    // 버전이 없으면 redis 현재 시각으로 세팅 후 반환 (ARGV[1] : 만료 시간 ms, 0 이면 만료 없음)
+    private static final RedisScript<Long> INIT_SCRIPT = new DefaultRedisScript<>(
+            "local version = redis.call('GET', KEYS[1]) "
+                    + "if version then return tonumber(version) end "
+                    + "local time = redis.call('TIME') "
+                    + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000) "
+                    + "if tonumber(ARGV[1]) > 0 then "
+                    + "redis.call('SET', KEYS[1], string.format('%d', now), 'PX', ARGV[1]) "
+                    + "else redis.call('SET', KEYS[1], string.format('%d', now)) end "
+                    + "return now", Long.class);
+
+    // 조회 시 새로 만든 목록 버전의 유효 시간 (없는 카테고리로 조회해도 key 가 계속 쌓이지 않도록)
+    // 상품이 바뀌어 touch 된 버전은 만료 없이 유지
+    @Value("${product.version.init-ttl-hours:24}")
+    private long initTtlHours;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final StockInventoryService stockInventoryService;
+
+    public ProductVersionService(@Qualifier("productIndex") RedisTemplate<String, String> redisTemplate
+            , StockInventoryService stockInventoryService) {
+        this.redisTemplate = redisTemplate;
+        this.stockInventoryService = stockInventoryService;
+    }
+
+    // 상품 변경 시 상품, 카테고리(변경 전/후), 전체 목록의 버전 갱신 (commit 이후 반영)
+    public void touch(Long productId, String... categories) {
+        afterCommit(() -> {
+            Set<String> keySet = new LinkedHashSet<>();
+            keySet.add(ALL_VERSION_KEY);
+            if (productId != null) {
+                keySet.add(PRODUCT_VERSION_KEY + productId);
+            }
+            for (String category : categories) {
+                if (category != null) {
+                    keySet.add(CATEGORY_VERSION_KEY + category);
+                }
+            }
+            redisTemplate.execute(TOUCH_SCRIPT, new ArrayList<>(keySet));
+        });
+    }
+
+    // 상품 버전 조회 (없으면 null)
+    // 없는 상품 id 로 조회해도 key 가 생기지 않도록 여기서는 만들지 않음
+    public Long findProductVersion(Long productId) {
+        String version = redisTemplate.opsForValue().get(PRODUCT_VERSION_KEY + productId);
+        return version == null ? null : Long.parseLong(version);
+    }
+
+    // 상품을 조회해서 존재가 확인된 후에만 호출 (기존 데이터, redis 초기화 등으로 버전이 없는 경우 현재 시각으로 세팅)
+    public long initProductVersion(Long productId) {
+        return init(PRODUCT_VERSION_KEY + productId, 0);
+    }
+
+    // 상세 조회 ETag (상품 정보 버전 + 실시간 재고)
+    // 재고는 주문마다 바뀌므로 버전과 별도로 redis 의 현재 값을 포함
+    public String detailETag(Long productId, long version) {
+        return "p" + productId + "-" + version + "-" + stockInventoryService.getStockQuantity(productId);
+    }
+
+    // 카테고리 검색이면 카테고리 버전, 아니면 전체 목록 버전
+    public long getListVersion(String category) {
+        return getOrInit(category == null ? ALL_VERSION_KEY : CATEGORY_VERSION_KEY + category);
+    }
+
+    // 버전이 없으면(기존 데이터, redis 초기화 등) 현재 시각으로 세팅 (만료 시간 포함)
+    private long getOrInit(String key) {
+        String version = redisTemplate.opsForValue().get(key);
+        if (version != null) {
+            return Long.parseLong(version);
+        }
+        return init(key, Duration.ofHours(initTtlHours).toMillis());
+    }
+
+    private long init(String key, long ttlMillis) {
+        Long version = redisTemplate.execute(INIT_SCRIPT, List.of(key), String.valueOf(ttlMillis));
+        if (version == null) {
+            throw new IllegalStateException("상품 버전 조회 실패");
+        }
+        return version;
+    }
+
+    // commit 전에 버전을 올리면 그 사이 조회한 이전 데이터가 새 버전으로 캐싱될 수 있으므로 commit 이후 반영
+    private void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.order.order.perf.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.github.fppt.jedismock.RedisServer;
+import com.order.order.common.service.StockRabbitMqService;
+import com.order.order.perf.service.FileSystemS3Client;
+import com.order.order.perf.service.InMemoryAmqpBroker;
+import com.order.order.perf.service.InMemoryRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+// 부하 테스트용 perf 프로필
+// 외부 의존성을 같은 bean 타입의 프로세스 내 구현으로 교체 (서비스 코드는 그대로 사용)
+// - MariaDB  -> h2 메모리 db (MariaDB 모드, application-perf.yml)
+// - Redis    -> 메모리 redis 서버 (재고, pub/sub, stream 등 모든 redis 템플릿이 그대로 접속)
+// - RabbitMQ -> 메모리 브로커 (stockDecreaseQueue)
+// - S3       -> 로컬 디렉토리
+// ex) ./gradlew bootRunPerf
+@Configuration
+@Profile("perf")
+public class PerfConfig {
+
+    private static final String REDIS_SERVER_BEAN = "perfRedisServer";
+
+    // redis 연결 객체들이 생성되기 전에 메모리 redis 서버 기동
+    @Bean(name = REDIS_SERVER_BEAN, destroyMethod = "stop")
+    public RedisServer perfRedisServer(@Value("${spring.redis.port}") int port) throws IOException {
+        RedisServer redisServer = RedisServer.newRedisServer(port);
+        redisServer.start();
+        return redisServer;
+    }
+
+    @Bean
+    public static BeanFactoryPostProcessor perfRedisServerDependency() {
+        return beanFactory -> {
+            for (String beanName : beanFactory.getBeanNamesForType(RedisConnectionFactory.class, true, false)) {
+                beanFactory.getBeanDefinition(beanName).setDependsOn(REDIS_SERVER_BEAN);
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public InMemoryAmqpBroker inMemoryAmqpBroker() {
+        return new InMemoryAmqpBroker();
+    }
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(InMemoryAmqpBroker inMemoryAmqpBroker) {
+        return new InMemoryRabbitTemplate(inMemoryAmqpBroker);
+    }
+
+    // @RabbitListener 대신 메모리 브로커의 소비자로 재고 반영 메서드 등록
+    @Bean
+    public SmartInitializingSingleton stockQueueListener(InMemoryAmqpBroker inMemoryAmqpBroker
+            , StockRabbitMqService stockRabbitMqService) {
+        return () -> inMemoryAmqpBroker.listen(StockRabbitMqService.STOCK_QUEUE, message -> {
+            try {
+                stockRabbitMqService.subscribe(message);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException(e);
+            }
+        });
+    }
+
+    @Bean
+    public S3Client s3Client(@Value("${perf.object-store.path}") String path
+            , @Value("${cloud.aws.region.static}") String region) {
+        return new FileSystemS3Client(Path.of(path), Region.of(region));
+    }
+}
@@ -0,0 +1,30 @@
+package com.order.order.perf.controller;
+
+import com.order.order.common.dto.CommonDTO;
+import com.order.order.perf.dto.PerfLoadReqDTO;
+import com.order.order.perf.service.PerfLoadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/perf")
+@RequiredArgsConstructor
+@Profile("perf")
+public class PerfLoadController {
+
+    private final PerfLoadService perfLoadService;
+
+    // 주문 등록 부하 테스트 실행 (요청 값이 없으면 기본 설정 사용)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/load")
+    public ResponseEntity<?> load(@RequestBody(required = false) PerfLoadReqDTO perfLoadReqDTO) {
+        return new ResponseEntity<>(CommonDTO.builder()
+                .result(perfLoadService.run(perfLoadReqDTO == null ? new PerfLoadReqDTO() : perfLoadReqDTO))
+                .status_code(HttpStatus.OK.value())
+                .status_message("부하 테스트 완료").build(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,21 @@
+package com.order.order.perf.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PerfLoadReqDTO {
+    // 테스트용으로 새로 등록할 상품 수와 상품별 재고
+    private int productCount = 10;
+    private int stockQuantity = 100;
+    // 주문을 보낼 회원 수 (요청마다 돌아가면서 사용)
+    private int memberCount = 50;
+    // 전체 주문 요청 수와 동시 요청 수
+    private int requestCount = 2000;
+    private int concurrency = 64;
+    // 주문 1건당 수량
+    private int productCountPerOrder = 1;
+}
@@ -0,0 +1,28 @@
+package com.order.order.perf.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PerfLoadResDTO {
+    private int requestCount;
+    private int successCount;
+    private int failCount;
+    private long elapsedMs;
+    // 초당 처리 요청 수
+    private double throughput;
+    // 응답 시간 (ms)
+    private double p50Ms;
+    private double p95Ms;
+    private double p99Ms;
+    private double maxMs;
+    // 재고보다 더 팔린 수량 (상품별 성공 주문 수량 - 재고 의 합, 0 이어야 정상)
+    private long oversellCount;
+    // 서버가 가상 스레드로 요청을 처리했는지 (spring.threads.virtual.enabled)
+    private boolean virtualThreads;
+}
@@ -0,0 +1,176 @@
+package com.order.order.perf.service;
+
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+// perf 프로필용 S3 대체 (로컬 디렉토리에 {bucket}/{key} 로 저장)
+// S3StorageService 가 사용하는 요청(put, get, delete, multipart upload)만 구현
+// url 은 S3 와 같은 형식으로 만들어서 url -> 파일명 변환이 그대로 동작하도록 함
+public class FileSystemS3Client implements S3Client {
+
+    private static final String MULTIPART_DIR = ".multipart";
+
+    private final Path root;
+    private final S3Utilities s3Utilities;
+
+    public FileSystemS3Client(Path root, Region region) {
+        this.root = root;
+        this.s3Utilities = S3Utilities.builder().region(region).build();
+    }
+
+    @Override
+    public PutObjectResponse putObject(PutObjectRequest putObjectRequest, RequestBody requestBody) {
+        write(objectPath(putObjectRequest.bucket(), putObjectRequest.key()), requestBody);
+        return PutObjectResponse.builder().build();
+    }
+
+    @Override
+    public ResponseInputStream<GetObjectResponse> getObject(GetObjectRequest getObjectRequest) {
+        Path path = objectPath(getObjectRequest.bucket(), getObjectRequest.key());
+        try {
+            InputStream inputStream = Files.newInputStream(path);
+            return new ResponseInputStream<>(GetObjectResponse.builder().contentLength(Files.size(path)).build()
+                    , AbortableInputStream.create(inputStream));
+        } catch (NoSuchFileException e) {
+            throw NoSuchKeyException.builder().message("없는 파일입니다. key = " + getObjectRequest.key()).build();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public DeleteObjectResponse deleteObject(DeleteObjectRequest deleteObjectRequest) {
+        try {
+            Files.deleteIfExists(objectPath(deleteObjectRequest.bucket(), deleteObjectRequest.key()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return DeleteObjectResponse.builder().build();
+    }
+
+    @Override
+    public CreateMultipartUploadResponse createMultipartUpload(CreateMultipartUploadRequest createMultipartUploadRequest) {
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Files.createDirectories(partDir(uploadId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return CreateMultipartUploadResponse.builder()
+                .bucket(createMultipartUploadRequest.bucket())
+                .key(createMultipartUploadRequest.key())
+                .uploadId(uploadId).build();
+    }
+
+    @Override
+    public UploadPartResponse uploadPart(UploadPartRequest uploadPartRequest, RequestBody requestBody) {
+        write(partDir(uploadPartRequest.uploadId()).resolve(String.valueOf(uploadPartRequest.partNumber())), requestBody);
+        return UploadPartResponse.builder().eTag(String.valueOf(uploadPartRequest.partNumber())).build();
+    }
+
+    // part 번호 순서대로 이어 붙여서 하나의 파일로 저장
+    @Override
+    public CompleteMultipartUploadResponse completeMultipartUpload(CompleteMultipartUploadRequest completeMultipartUploadRequest) {
+        Path partDir = partDir(completeMultipartUploadRequest.uploadId());
+        Path target = objectPath(completeMultipartUploadRequest.bucket(), completeMultipartUploadRequest.key());
+        List<CompletedPart> completedPartList = completeMultipartUploadRequest.multipartUpload().parts().stream()
+                .sorted(Comparator.comparing(CompletedPart::partNumber)).toList();
+        try {
+            Files.createDirectories(target.getParent());
+            try (OutputStream outputStream = Files.newOutputStream(target)) {
+                for (CompletedPart completedPart : completedPartList) {
+                    Files.copy(partDir.resolve(String.valueOf(completedPart.partNumber())), outputStream);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        deleteDir(partDir);
+        return CompleteMultipartUploadResponse.builder()
+                .bucket(completeMultipartUploadRequest.bucket())
+                .key(completeMultipartUploadRequest.key()).build();
+    }
+
+    @Override
+    public AbortMultipartUploadResponse abortMultipartUpload(AbortMultipartUploadRequest abortMultipartUploadRequest) {
+        deleteDir(partDir(abortMultipartUploadRequest.uploadId()));
+        return AbortMultipartUploadResponse.builder().build();
+    }
+
+    @Override
+    public S3Utilities utilities() {
+        return s3Utilities;
+    }
+
+    @Override
+    public String serviceName() {
+        return SERVICE_NAME;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private Path objectPath(String bucket, String key) {
+        return root.resolve(bucket).resolve(key);
+    }
+
+    private Path partDir(String uploadId) {
+        return root.resolve(MULTIPART_DIR).resolve(uploadId);
+    }
+
+    private void write(Path target, RequestBody requestBody) {
+        try (InputStream inputStream = requestBody.contentStreamProvider().newStream()) {
+            Files.createDirectories(target.getParent());
+            Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deleteDir(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> pathStream = Files.walk(dir)) {
+            for (Path path : pathStream.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.order.order.perf.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Exchange;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueInformation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+// perf 프로필용 메모리 메세지 브로커 (rabbitmq 대체)
+// 큐마다 소비 스레드 1개로 순서대로 처리 (@RabbitListener 단일 소비자와 동일)
+// 큐 상태 조회(getQueueInfo)는 AmqpAdmin 으로 제공
+@Slf4j
+public class InMemoryAmqpBroker implements AmqpAdmin {
+
+    private final Map<String, BlockingQueue<Message>> queueMap = new ConcurrentHashMap<>();
+    private final Map<String, Thread> consumerMap = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    public void send(String queueName, Message message) {
+        queue(queueName).offer(message);
+    }
+
+    // 큐의 소비자 등록 (큐당 하나)
+    public void listen(String queueName, MessageListener messageListener) {
+        BlockingQueue<Message> queue = queue(queueName);
+        consumerMap.computeIfAbsent(queueName, key -> {
+            Thread thread = new Thread(() -> consume(queueName, queue, messageListener), "perf-broker-" + queueName);
+            thread.setDaemon(true);
+            thread.start();
+            return thread;
+        });
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Thread thread : consumerMap.values()) {
+            thread.interrupt();
+        }
+    }
+
+    private void consume(String queueName, BlockingQueue<Message> queue, MessageListener messageListener) {
+        while (running) {
+            Message message;
+            try {
+                message = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                messageListener.onMessage(message);
+            } catch (RuntimeException e) {
+                // rabbitmq 리스너와 마찬가지로 처리 실패한 메세지는 유실
+                log.error("메세지 처리 실패 queue = {}, {}", queueName, e.getMessage());
+            }
+        }
+    }
+
+    private BlockingQueue<Message> queue(String queueName) {
+        return queueMap.computeIfAbsent(queueName, key -> new LinkedBlockingQueue<>());
+    }
+
+    @Override
+    public void declareExchange(Exchange exchange) {
+    }
+
+    @Override
+    public boolean deleteExchange(String exchangeName) {
+        return true;
+    }
+
+    @Override
+    public Queue declareQueue() {
+        Queue queue = new AnonymousQueue();
+        queue(queue.getName());
+        return queue;
+    }
+
+    @Override
+    public String declareQueue(Queue queue) {
+        queue(queue.getName());
+        return queue.getName();
+    }
+
+    @Override
+    public boolean deleteQueue(String queueName) {
+        return queueMap.remove(queueName) != null;
+    }
+
+    @Override
+    public void deleteQueue(String queueName, boolean unused, boolean empty) {
+        deleteQueue(queueName);
+    }
+
+    @Override
+    public void purgeQueue(String queueName, boolean noWait) {
+        purgeQueue(queueName);
+    }
+
+    @Override
+    public int purgeQueue(String queueName) {
+        List<Message> messageList = new ArrayList<>();
+        queue(queueName).drainTo(messageList);
+        return messageList.size();
+    }
+
+    @Override
+    public void declareBinding(Binding binding) {
+    }
+
+    @Override
+    public void removeBinding(Binding binding) {
+    }
+
+    @Override
+    public Properties getQueueProperties(String queueName) {
+        QueueInformation queueInformation = getQueueInfo(queueName);
+        if (queueInformation == null) {
+            return null;
+        }
+        Properties properties = new Properties();
+        properties.put(QUEUE_NAME, queueInformation.getName());
+        properties.put(QUEUE_MESSAGE_COUNT, queueInformation.getMessageCount());
+        properties.put(QUEUE_CONSUMER_COUNT, queueInformation.getConsumerCount());
+        return properties;
+    }
+
+    @Override
+    public QueueInformation getQueueInfo(String queueName) {
+        BlockingQueue<Message> queue = queueMap.get(queueName);
+        if (queue == null) {
+            return null;
+        }
+        return new QueueInformation(queueName, queue.size(), consumerMap.containsKey(queueName) ? 1 : 0);
+    }
+}
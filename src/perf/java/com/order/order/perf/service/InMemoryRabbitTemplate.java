@@ -0,0 +1,30 @@
+package com.order.order.perf.service;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+// perf 프로필용 RabbitTemplate
+// 메세지 변환(Jackson2JsonMessageConverter)은 그대로 두고 전송만 메모리 브로커로 보냄
+// 기본 exchange("") 와 같이 routingKey 를 큐 이름으로 사용
+public class InMemoryRabbitTemplate extends RabbitTemplate {
+
+    private final InMemoryAmqpBroker inMemoryAmqpBroker;
+
+    public InMemoryRabbitTemplate(InMemoryAmqpBroker inMemoryAmqpBroker) {
+        this.inMemoryAmqpBroker = inMemoryAmqpBroker;
+        setMessageConverter(new Jackson2JsonMessageConverter());
+    }
+
+    // rabbitmq 연결을 사용하지 않으므로 ConnectionFactory 검사 생략
+    @Override
+    public void afterPropertiesSet() {
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) throws AmqpException {
+        inMemoryAmqpBroker.send(routingKey, message);
+    }
+}
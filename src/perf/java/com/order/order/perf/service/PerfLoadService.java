@@ -0,0 +1,219 @@
+package com.order.order.perf.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.order.common.auth.JwtTokenProvider;
+import com.order.order.common.service.StockInventoryService;
+import com.order.order.member.domain.Member;
+import com.order.order.member.domain.Role;
+import com.order.order.member.repository.MemberRepository;
+import com.order.order.ordering.dto.OrderCreateDTO;
+import com.order.order.perf.dto.PerfLoadReqDTO;
+import com.order.order.perf.dto.PerfLoadResDTO;
+import com.order.order.product.domain.Product;
+import com.order.order.product.repository.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// 주문 등록(/ordering/create) 부하 생성기
+// 테스트용 회원/상품을 새로 만들고 동시에 주문 요청을 보낸 뒤 처리량, 응답 시간 percentile, 초과 판매 수량을 집계
+// 실제 http 요청으로 보내므로 필터(jwt), 트랜잭션, redis 재고, 메세지 발행까지 전체 경로를 측정
+// 가상 스레드 비교 : 같은 요청을 VIRTUAL_THREADS=true / false 로 각각 실행해서 결과 비교
+@Service
+@Profile("perf")
+@Slf4j
+public class PerfLoadService {
+
+    @Value("${perf.load.on-startup:false}")
+    private boolean onStartup;
+
+    private final MemberRepository memberRepository;
+    private final ProductRepository productRepository;
+    private final StockInventoryService stockInventoryService;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final PasswordEncoder passwordEncoder;
+    private final Environment environment;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+
+    public PerfLoadService(MemberRepository memberRepository, ProductRepository productRepository
+            , StockInventoryService stockInventoryService, JwtTokenProvider jwtTokenProvider
+            , PasswordEncoder passwordEncoder, Environment environment) {
+        this.memberRepository = memberRepository;
+        this.productRepository = productRepository;
+        this.stockInventoryService = stockInventoryService;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.passwordEncoder = passwordEncoder;
+        this.environment = environment;
+    }
+
+    // perf.load.on-startup=true 이면 기동 직후 기본 설정으로 한 번 실행하고 결과를 로그로 출력
+    @EventListener(ApplicationReadyEvent.class)
+    public void runOnStartup() {
+        if (onStartup) {
+            log.info("perf 부하 테스트 결과 = {}", run(new PerfLoadReqDTO()));
+        }
+    }
+
+    public PerfLoadResDTO run(PerfLoadReqDTO perfLoadReqDTO) {
+        if (perfLoadReqDTO.getProductCount() <= 0 || perfLoadReqDTO.getMemberCount() <= 0
+                || perfLoadReqDTO.getRequestCount() <= 0 || perfLoadReqDTO.getConcurrency() <= 0) {
+            throw new IllegalArgumentException("상품 수, 회원 수, 요청 수, 동시 요청 수는 1 이상이어야 합니다.");
+        }
+        String runId = String.valueOf(System.currentTimeMillis());
+        List<String> tokenList = createMembers(runId, perfLoadReqDTO.getMemberCount());
+        List<Long> productIdList = createProducts(runId, perfLoadReqDTO.getProductCount(), perfLoadReqDTO.getStockQuantity());
+        URI uri = URI.create("http://localhost:" + environment.getProperty("local.server.port", "8080") + "/ordering/create");
+
+        int requestCount = perfLoadReqDTO.getRequestCount();
+        long[] latencyNanos = new long[requestCount];
+        // 상품별 성공 주문 수량 (productIdList 의 index 기준)
+        AtomicLongArray soldArray = new AtomicLongArray(productIdList.size());
+        AtomicInteger successCount = new AtomicInteger();
+        CountDownLatch countDownLatch = new CountDownLatch(requestCount);
+
+        // 부하 생성 스레드는 서버 스레드 설정과 관계없이 고정 크기 플랫폼 스레드풀 사용
+        ExecutorService executorService = Executors.newFixedThreadPool(perfLoadReqDTO.getConcurrency());
+        long startedAt = System.nanoTime();
+        try {
+            for (int i = 0; i < requestCount; i++) {
+                int requestIndex = i;
+                executorService.execute(() -> {
+                    try {
+                        int productIndex = ThreadLocalRandom.current().nextInt(productIdList.size());
+                        long requestStartedAt = System.nanoTime();
+                        boolean success = order(uri, tokenList.get(requestIndex % tokenList.size())
+                                , productIdList.get(productIndex), perfLoadReqDTO.getProductCountPerOrder());
+                        latencyNanos[requestIndex] = System.nanoTime() - requestStartedAt;
+                        if (success) {
+                            successCount.incrementAndGet();
+                            soldArray.addAndGet(productIndex, perfLoadReqDTO.getProductCountPerOrder());
+                        }
+                    } finally {
+                        countDownLatch.countDown();
+                    }
+                });
+            }
+            countDownLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("부하 테스트 중단");
+        } finally {
+            executorService.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+
+        long oversellCount = 0;
+        for (int i = 0; i < soldArray.length(); i++) {
+            oversellCount += Math.max(0, soldArray.get(i) - perfLoadReqDTO.getStockQuantity());
+        }
+
+        Arrays.sort(latencyNanos);
+        return PerfLoadResDTO.builder()
+                .requestCount(requestCount)
+                .successCount(successCount.get())
+                .failCount(requestCount - successCount.get())
+                .elapsedMs(elapsedNanos / 1_000_000)
+                .throughput(requestCount * 1_000_000_000.0 / elapsedNanos)
+                .p50Ms(percentileMs(latencyNanos, 0.50))
+                .p95Ms(percentileMs(latencyNanos, 0.95))
+                .p99Ms(percentileMs(latencyNanos, 0.99))
+                .maxMs(latencyNanos[requestCount - 1] / 1_000_000.0)
+                .oversellCount(oversellCount)
+                .virtualThreads(Threading.VIRTUAL.isActive(environment))
+                .build();
+    }
+
+    // 주문 요청 1건 (201 이면 성공, 재고 부족 등 그 외 응답은 실패)
+    private boolean order(URI uri, String token, Long productId, int productCount) {
+        try {
+            String body = objectMapper.writeValueAsString(List.of(new OrderCreateDTO(productId, productCount)));
+            HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+            return httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode() == 201;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        } catch (IOException e) {
+            log.warn("주문 요청 실패 = {}", e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // 테스트용 회원 생성 후 access token 발급 (비밀번호 해시는 한 번만 계산해서 공유)
+    private List<String> createMembers(String runId, int memberCount) {
+        String password = passwordEncoder.encode(runId);
+        List<Member> memberList = new ArrayList<>();
+        for (int i = 0; i < memberCount; i++) {
+            memberList.add(Member.builder()
+                    .name("perf-" + i)
+                    .email("perf-" + runId + "-" + i + "@perf.com")
+                    .password(password)
+                    .role(Role.USER)
+                    .build());
+        }
+        List<String> tokenList = new ArrayList<>();
+        for (Member member : memberRepository.saveAll(memberList)) {
+            tokenList.add(jwtTokenProvider.createAtToken(member));
+        }
+        return tokenList;
+    }
+
+    // 테스트용 상품 생성 후 redis 재고 세팅
+    private List<Long> createProducts(String runId, int productCount, int stockQuantity) {
+        List<Product> productList = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            productList.add(Product.builder()
+                    .name("perf-" + runId + "-" + i)
+                    .category("perf")
+                    .price(1000)
+                    .stockQuantity(stockQuantity)
+                    .build());
+        }
+        List<Long> productIdList = new ArrayList<>();
+        Map<Long, Integer> stockMap = new HashMap<>();
+        for (Product product : productRepository.saveAll(productList)) {
+            productIdList.add(product.getId());
+            stockMap.put(product.getId(), stockQuantity);
+        }
+        stockInventoryService.makeStockQuantities(stockMap);
+        return productIdList;
+    }
+
+    private double percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.order.order.common.service;
+
+import com.order.order.product.domain.Product;
+import com.order.order.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// 내장 db(h2) 로 db 엔진 계약 테스트
+// 동시 차감 테스트에서 스레드마다 커밋된 데이터를 봐야 하므로 테스트 트랜잭션은 사용하지 않음
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseStockStoreTest extends StockStoreContractTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Override
+	protected StockStore createStockStore() {
+		return new DatabaseStockStore(productRepository);
+	}
+
+	@Override
+	protected long createProduct(int quantity) {
+		return productRepository.save(Product.builder()
+				.name("stock-test")
+				.category("test")
+				.price(1000)
+				.stockQuantity(quantity)
+				.build()).getId();
+	}
+}
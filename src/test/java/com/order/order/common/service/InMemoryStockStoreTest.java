@@ -0,0 +1,26 @@
+package com.order.order.common.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryStockStoreTest extends StockStoreContractTest {
+
+	@Override
+	protected StockStore createStockStore() {
+		// stripe 를 적게 잡아서 테이블 확장과 chunk 추가가 일어나도록 함
+		return new InMemoryStockStore(2);
+	}
+
+	// 상품이 많아져 테이블이 커지는 동안에도 기존 재고 값이 유지되어야 함
+	@Test
+	void keepsStockWhileGrowing() {
+		int productCount = 5000;
+		for (long productId = 1; productId <= productCount; productId++) {
+			stockStore.set(productId, (int) productId);
+		}
+		for (long productId = 1; productId <= productCount; productId++) {
+			assertThat(stockStore.get(productId)).isEqualTo((int) productId);
+		}
+	}
+}
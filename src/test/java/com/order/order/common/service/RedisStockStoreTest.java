@@ -0,0 +1,53 @@
+package com.order.order.common.service;
+
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.IOException;
+
+// 메모리 redis 서버(jedis-mock)로 redis 엔진 계약 테스트 (lua script 포함)
+class RedisStockStoreTest extends StockStoreContractTest {
+
+	private static RedisServer redisServer;
+	private static LettuceConnectionFactory connectionFactory;
+	private static RedisTemplate<String, String> redisTemplate;
+
+	@BeforeAll
+	static void startRedis() throws IOException {
+		redisServer = RedisServer.newRedisServer();
+		redisServer.start();
+		connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redisServer.getBindPort()));
+		connectionFactory.afterPropertiesSet();
+		redisTemplate = new RedisTemplate<>();
+		redisTemplate.setKeySerializer(new StringRedisSerializer());
+		redisTemplate.setValueSerializer(new StringRedisSerializer());
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+	}
+
+	@AfterAll
+	static void stopRedis() throws IOException {
+		connectionFactory.destroy();
+		redisServer.stop();
+	}
+
+	@Override
+	protected StockStore createStockStore() {
+		return new RedisStockStore(redisTemplate);
+	}
+
+	@AfterEach
+	void flush() {
+		redisTemplate.execute((RedisCallback<Object>) connection -> {
+			connection.serverCommands().flushDb();
+			return null;
+		});
+	}
+}
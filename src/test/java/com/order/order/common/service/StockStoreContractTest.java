@@ -0,0 +1,135 @@
+package com.order.order.common.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 재고 엔진 공통 계약 테스트 (엔진별 테스트는 이 클래스를 상속해서 저장소 생성 방법만 구현)
+abstract class StockStoreContractTest {
+
+	protected StockStore stockStore;
+	private long nextProductId = 1;
+
+	protected abstract StockStore createStockStore();
+
+	// 재고가 quantity 인 상품을 만들고 id 응답 (상품 행이 필요한 엔진은 재정의)
+	protected long createProduct(int quantity) {
+		long productId = nextProductId++;
+		stockStore.set(productId, quantity);
+		return productId;
+	}
+
+	protected long unknownProductId() {
+		return 999_999L;
+	}
+
+	@BeforeEach
+	void setUpStockStore() {
+		stockStore = createStockStore();
+	}
+
+	@Test
+	void setThenGet() {
+		long productId = createProduct(10);
+
+		stockStore.set(productId, 7);
+
+		assertThat(stockStore.get(productId)).isEqualTo(7);
+	}
+
+	@Test
+	void getUnknownProduct() {
+		assertThat(stockStore.get(unknownProductId())).isEqualTo(StockStore.NOT_FOUND);
+	}
+
+	@Test
+	void setAllThenGetAll() {
+		long first = createProduct(0);
+		long second = createProduct(0);
+
+		stockStore.setAll(new long[]{first, second}, new int[]{3, 5});
+
+		assertThat(stockStore.getAll(new long[]{second, unknownProductId(), first}))
+				.containsExactly(5, StockStore.NOT_FOUND, 3);
+	}
+
+	@Test
+	void reserveDecreasesStock() {
+		long productId = createProduct(10);
+
+		assertThat(stockStore.reserve(productId, 3)).isEqualTo(7);
+		assertThat(stockStore.reserve(productId, 7)).isEqualTo(0);
+		assertThat(stockStore.get(productId)).isEqualTo(0);
+	}
+
+	@Test
+	void reserveInsufficientStockKeepsStock() {
+		long productId = createProduct(2);
+
+		assertThat(stockStore.reserve(productId, 3)).isEqualTo(StockStore.NOT_FOUND);
+		assertThat(stockStore.get(productId)).isEqualTo(2);
+	}
+
+	@Test
+	void reserveUnknownProduct() {
+		assertThat(stockStore.reserve(unknownProductId(), 1)).isEqualTo(StockStore.NOT_FOUND);
+	}
+
+	@Test
+	void releaseIncreasesStock() {
+		long productId = createProduct(1);
+
+		assertThat(stockStore.release(productId, 4)).isEqualTo(5);
+		assertThat(stockStore.get(productId)).isEqualTo(5);
+	}
+
+	@Test
+	void releaseUnknownProductDoesNotCreateStock() {
+		assertThat(stockStore.release(unknownProductId(), 4)).isEqualTo(StockStore.NOT_FOUND);
+		assertThat(stockStore.get(unknownProductId())).isEqualTo(StockStore.NOT_FOUND);
+	}
+
+	// 동시에 차감해도 재고보다 많이 팔리지 않아야 함
+	@Test
+	void concurrentReserveNeverOversells() throws Exception {
+		int stockQuantity = 100;
+		int threadCount = 8;
+		int attemptsPerThread = 50;
+		long productId = createProduct(stockQuantity);
+
+		ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+		CountDownLatch startLatch = new CountDownLatch(1);
+		List<Future<Integer>> futureList = new ArrayList<>();
+		for (int i = 0; i < threadCount; i++) {
+			futureList.add(executorService.submit(() -> {
+				startLatch.await();
+				int successCount = 0;
+				for (int j = 0; j < attemptsPerThread; j++) {
+					if (stockStore.reserve(productId, 1) >= 0) {
+						successCount++;
+					}
+				}
+				return successCount;
+			}));
+		}
+		startLatch.countDown();
+
+		int successCount = 0;
+		for (Future<Integer> future : futureList) {
+			successCount += future.get(30, TimeUnit.SECONDS);
+		}
+		executorService.shutdown();
+
+		assertThat(successCount).isEqualTo(stockQuantity);
+		assertThat(stockStore.get(productId)).isEqualTo(0);
+	}
+}
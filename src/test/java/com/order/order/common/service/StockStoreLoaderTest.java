@@ -0,0 +1,54 @@
+package com.order.order.common.service;
+
+import com.order.order.product.domain.Product;
+import com.order.order.product.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 재시작 후 memory 엔진이 db 재고로 채워지는지 확인
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockStoreLoaderTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Test
+	void loadsDatabaseStockIntoMemoryStore() {
+		long first = createProduct(10);
+		long second = createProduct(0);
+		long third = createProduct(7);
+		StockStore stockStore = new InMemoryStockStore(2);
+
+		// batch 크기보다 상품이 많아도 모두 적재
+		int count = new StockStoreLoader(stockStore, productRepository, 2).load();
+
+		assertThat(count).isEqualTo((int) productRepository.count());
+		assertThat(stockStore.getAll(new long[]{first, second, third})).containsExactly(10, 0, 7);
+		assertThat(stockStore.reserve(first, 3)).isEqualTo(7);
+	}
+
+	@Test
+	void unknownProductStaysNotFound() {
+		createProduct(5);
+		StockStore stockStore = new InMemoryStockStore(2);
+
+		new StockStoreLoader(stockStore, productRepository, 100).load();
+
+		assertThat(stockStore.get(999_999L)).isEqualTo(StockStore.NOT_FOUND);
+	}
+
+	private long createProduct(int quantity) {
+		return productRepository.save(Product.builder()
+				.name("stock-test")
+				.category("test")
+				.price(1000)
+				.stockQuantity(quantity)
+				.build()).getId();
+	}
+}
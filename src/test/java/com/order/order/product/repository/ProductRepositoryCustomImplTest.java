@@ -0,0 +1,85 @@
+package com.order.order.product.repository;
+
+import com.order.order.product.domain.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 주문 재고 일괄 차감 (조건부 update batch) 테스트
+// rollback 결과를 커밋된 데이터로 확인해야 하므로 테스트 트랜잭션은 사용하지 않고 TransactionTemplate 으로 직접 관리
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductRepositoryCustomImplTest {
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void decreaseAllWhenStockIsEnough() {
+		long first = createProduct(10);
+		long second = createProduct(5);
+
+		int[] updatedRows = decrease(new long[]{first, second}, new int[]{3, 5});
+
+		assertThat(updatedRows).containsExactly(1, 1);
+		assertThat(productRepository.findStockQuantity(first)).isEqualTo(7);
+		assertThat(productRepository.findStockQuantity(second)).isEqualTo(0);
+	}
+
+	@Test
+	void insufficientStockIsNotUpdated() {
+		long productId = createProduct(2);
+
+		int[] updatedRows = decrease(new long[]{productId}, new int[]{3});
+
+		assertThat(updatedRows).containsExactly(0);
+		assertThat(productRepository.findStockQuantity(productId)).isEqualTo(2);
+	}
+
+	@Test
+	void unknownProductIsNotUpdated() {
+		int[] updatedRows = decrease(new long[]{999_999L}, new int[]{1});
+
+		assertThat(updatedRows).containsExactly(0);
+	}
+
+	// 일부 상품만 차감된 경우 호출하는 쪽(OrderService)이 예외로 rollback 하면 먼저 차감된 상품도 원복
+	@Test
+	void partialSuccessIsRolledBack() {
+		long first = createProduct(10);
+		long second = createProduct(1);
+
+		int[] updatedRows = new TransactionTemplate(transactionManager).execute(status -> {
+			int[] result = productRepository.decreaseStockQuantities(new long[]{first, second}, new int[]{3, 2});
+			status.setRollbackOnly();
+			return result;
+		});
+
+		assertThat(updatedRows).containsExactly(1, 0);
+		assertThat(productRepository.findStockQuantity(first)).isEqualTo(10);
+		assertThat(productRepository.findStockQuantity(second)).isEqualTo(1);
+	}
+
+	private int[] decrease(long[] productIds, int[] quantities) {
+		return new TransactionTemplate(transactionManager)
+				.execute(status -> productRepository.decreaseStockQuantities(productIds, quantities));
+	}
+
+	private long createProduct(int quantity) {
+		return productRepository.save(Product.builder()
+				.name("stock-test")
+				.category("test")
+				.price(1000)
+				.stockQuantity(quantity)
+				.build()).getId();
+	}
+}